@@ -0,0 +1,27 @@
+package benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Запуск замеров с сохранением результатов в JSON.<br>
+ * Аргументы: регулярное выражение для имен замеров (по умолчанию все) и файл результатов
+ * (по умолчанию {@code bench_output.json}). Файлы двух запусков сравниваются, например,
+ * на jmh.morethan.io, чтобы увидеть изменение до и после правки движка.
+ */
+public class BenchmarkRunner {
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : "benchmarks\\..*";
+        String result = args.length > 1 ? args[1] : "bench_output.json";
+
+        Options options = new OptionsBuilder()
+                .include(include)
+                .resultFormat(ResultFormatType.JSON)
+                .result(result)
+                .build();
+        new Runner(options).run();
+    }
+}
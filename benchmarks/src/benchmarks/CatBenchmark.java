@@ -0,0 +1,53 @@
+package benchmarks;
+
+import items.Cat;
+import items.Field;
+import items.Side;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ходы Кота и проверка, может ли он ходить.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CatBenchmark {
+    private Cat free;
+    private Cat surrounded;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Field field = Field.rectangle(11, 11);
+        free = new Cat(field.cellAt(5, 5));
+        field.setCat(free);
+
+        // Кот, у которого свободен только последний сосед: проверка обходит все стороны
+        Field closed = Field.rectangle(11, 11);
+        surrounded = new Cat(closed.cellAt(5, 5));
+        closed.setCat(surrounded);
+        closed.cellAt(4, 5).block(true);
+        closed.cellAt(6, 5).block(true);
+        closed.cellAt(5, 4).block(true);
+    }
+
+    /**
+     * Шаг влево и обратно
+     */
+    @Benchmark
+    @OperationsPerInvocation(2)
+    public void moveBackAndForth() {
+        free.move(Side.LEFT);
+        free.move(Side.RIGHT);
+    }
+
+    @Benchmark
+    public boolean isFunctionalFirstSide() { return free.isFunctional(); }
+
+    @Benchmark
+    public boolean isFunctionalLastSide() { return surrounded.isFunctional(); }
+}
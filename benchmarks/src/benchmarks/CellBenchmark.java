@@ -0,0 +1,80 @@
+package benchmarks;
+
+import items.Cat;
+import items.Cell;
+import items.Field;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Операции над одной Ячейкой: заселение Кота и уничтожение.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CellBenchmark {
+    // Уничтожений за один замер; не больше числа Ячеек самого маленького Поля
+    static final int DESTROYS = 121;
+
+    @Param({"11", "101", "1001"})
+    int side;
+
+    private Field field;
+    private Cell cell;
+    private Cat cat;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        field = Field.rectangle(side, side);
+        cell = field.cellAt(side / 2, side / 2);
+        cat = new Cat(cell);
+        field.setCat(cat);
+    }
+
+    /**
+     * Убрать Кота из Ячейки и вернуть обратно
+     */
+    @Benchmark
+    @OperationsPerInvocation(2)
+    public void unsetAndSetCat() {
+        cell.unsetCat();
+        cell.setCat(cat);
+    }
+
+    /**
+     * Уничтожить Ячейку.<br>
+     * Каждый замер - серия из {@value #DESTROYS} уничтожений подряд на Поле без Кота,
+     * заново созданном перед замером: уничтоженную Ячейку нельзя вернуть без истории,
+     * а ее отмена стоила бы больше самого уничтожения. Результат - время всей серии.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 200, batchSize = DESTROYS)
+    @Measurement(iterations = 1000, batchSize = DESTROYS)
+    public void destroy(DestroyState state) {
+        state.field.cellAt(state.next % side, state.next / side).destroy();
+        state.next++;
+    }
+
+    /**
+     * Поле для серии уничтожений
+     */
+    @State(Scope.Thread)
+    public static class DestroyState {
+        private Field field;
+        private int next;
+
+        @Setup(Level.Iteration)
+        public void setUp(CellBenchmark benchmark) {
+            int side = benchmark.side;
+            field = Field.rectangle(side, side);
+            next = 0;
+            // Представления Ячеек создаются при первом обращении; это не часть уничтожения
+            for (int i = 0; i < DESTROYS; i++) field.cellAt(i % side, i / side);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package benchmarks;
+
+import items.Cell;
+import items.Field;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Блокировка Ячеек параллельного Поля, на которое подписаны области, расстояния до края,
+ * журнал и история.<br>
+ * Одно Поле на все потоки; каждый поток блокирует и разблокирует свои случайные Ячейки.
+ * Сравнение одного и четырех потоков показывает, упираются ли записи в общую блокировку.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConcurrentFieldBenchmark {
+    // Раз в столько операций поток очищает историю, чтобы она не росла всю итерацию
+    static final int HISTORY_LIMIT = 1024;
+
+    @Param({"64", "256"})
+    int side;
+
+    private Field field;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        field = Field.concurrent(side, side, null);
+    }
+
+    @State(Scope.Thread)
+    public static class Cells {
+        private Cell[] cells;
+        private int next;
+
+        @Setup(Level.Trial)
+        public void setUp(ConcurrentFieldBenchmark benchmark) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            cells = new Cell[4096];
+            for (int i = 0; i < cells.length; i++) cells[i] = benchmark.field.getCells().get(random.nextInt(benchmark.side * benchmark.side));
+        }
+    }
+
+    private void toggle(Cells state) {
+        Cell cell = state.cells[state.next++ & state.cells.length - 1];
+        cell.block(true);
+        cell.block(false);
+        if (state.next % HISTORY_LIMIT == 0) field.getHistory().clear();
+    }
+
+    /**
+     * Заблокировать и разблокировать Ячейку в одном потоке
+     */
+    @Benchmark
+    @Threads(1)
+    @OperationsPerInvocation(2)
+    public void blockAlone(Cells state) { toggle(state); }
+
+    /**
+     * Заблокировать и разблокировать Ячейку в четырех потоках сразу
+     */
+    @Benchmark
+    @Threads(4)
+    @OperationsPerInvocation(2)
+    public void blockContended(Cells state) { toggle(state); }
+}
@@ -0,0 +1,70 @@
+package benchmarks;
+
+import items.Cat;
+import items.Cell;
+import items.Field;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Создание Поля и постановка Кота при разных размерах Поля.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FieldBenchmark {
+    @Param({"11", "101", "1001"})
+    int side;
+
+    private Field field;
+    private Field catField;
+    private Cat cat;
+    private boolean[] obstacles;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        field = Field.rectangle(side, side);
+        catField = Field.rectangle(side, side);
+        cat = new Cat(catField.cellAt(side / 2, side / 2));
+        obstacles = new boolean[side * side];
+        for (int i = 0; i < obstacles.length; i += 7) obstacles[i] = true;
+        obstacles[side / 2 * side + side / 2] = false;
+    }
+
+    @Benchmark
+    public Field rectangle() { return Field.rectangle(side, side); }
+
+    /**
+     * Поле из готового списка Ячеек
+     */
+    @Benchmark
+    public Field fromCells() {
+        List<Cell> cells = new ArrayList<>(side * side);
+        for (int y = 0; y < side; y++) {
+            for (int x = 0; x < side; x++) cells.add(new Cell(x, y));
+        }
+        return new Field(cells, side, side);
+    }
+
+    /**
+     * Сброс существующего Поля с препятствиями вместо создания нового
+     */
+    @Benchmark
+    public Field reset() {
+        field.reset(obstacles);
+        return field;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Field setCat() {
+        catField.setCat(cat);
+        return catField;
+    }
+}
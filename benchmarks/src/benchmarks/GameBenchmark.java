@@ -0,0 +1,58 @@
+package benchmarks;
+
+import items.Field;
+import items.Game;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Полная партия стратегий {@link Game#SHORTEST_PATH} и {@link Game#BLOCK_NEXT_STEP}
+ * на Поле с препятствиями. Поле и Игра создаются один раз и сбрасываются перед партией,
+ * как в {@link items.Simulator}; препятствия берутся по кругу из заранее построенных масок.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameBenchmark {
+    private static final int MASKS = 64;
+
+    @Param({"11", "31", "101"})
+    int side;
+
+    @Param({"0.1"})
+    double density;
+
+    private Game game;
+    private boolean[][] obstacles;
+    private int next = 0;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        game = new Game(Field.rectangle(side, side), Game.SHORTEST_PATH, Game.BLOCK_NEXT_STEP);
+        Random random = new Random(42);
+        obstacles = new boolean[MASKS][side * side];
+        for (boolean[] mask : obstacles) {
+            for (int i = 0; i < mask.length; i++) mask[i] = random.nextDouble() < density;
+            mask[side / 2 * side + side / 2] = false;
+        }
+    }
+
+    /**
+     * Партия от сброса Поля до конца
+     *
+     * @return Число ходов, чтобы партия не была выброшена компилятором
+     */
+    @Benchmark
+    public int simulatedGame() {
+        game.reset(obstacles[next]);
+        next = (next + 1) % MASKS;
+        game.placeCat(side / 2, side / 2);
+        game.start();
+        return game.getTurns();
+    }
+}
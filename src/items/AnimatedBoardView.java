@@ -0,0 +1,256 @@
+package items;
+
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferStrategy;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Поле на экране с анимацией хода Кота.<br>
+ * Отдельный поток рисует кадры через {@link BufferStrategy} с частотой {@value #FPS} кадров
+ * в секунду. Изображения Ячеек и Кота рисуются заранее; Ячейки копируются в фоновый буфер
+ * только при изменении, а Кот плавно перемещается между Ячейками. Все буферы выделяются
+ * один раз, поток кадров не создает объектов, кроме {@link Graphics} самой стратегии.
+ */
+class AnimatedBoardView extends Canvas {
+    private static final int FPS = 60;
+    private static final long FRAME_NANOS = 1_000_000_000L / FPS;
+    private static final long MOVE_NANOS = 150_000_000L;
+
+    // Номера изображений Ячеек
+    private static final int OPEN = 0, BLOCKED = 1, FROZEN = 2, DESTROYED = 3;
+
+    private final Board board;
+    private final int cellSize;
+    private final int sideX, sideY;
+
+    private BufferedImage[] sprites;
+    private BufferedImage catSprite;
+    private BufferedImage background;
+
+    // Изменения Поля от потока интерфейса к потоку кадров
+    private final Object lock = new Object();
+    private final boolean[] dirty;
+    private final int[] pending;
+    private final int[] work;
+    private int pendingCount = 0;
+    private boolean allDirty = true;
+    private int catFrom = -1, catTo = -1;
+    private long moveStart = 0;
+
+    private volatile boolean running = false;
+    private volatile double framesPerSecond = 0;
+    private Thread renderer;
+
+    /**
+     * Создает анимированное изображение Поля.
+     *
+     * @param field    Поле
+     * @param cellSize Размер Ячейки в пикселях
+     * @param listener Обработчик щелчков по Ячейкам
+     */
+    AnimatedBoardView(Field field, int cellSize, BoardView.CellListener listener) {
+        this.board = field.board();
+        this.cellSize = cellSize;
+        this.sideX = field.getSideX();
+        this.sideY = field.getSideY();
+        this.dirty = new boolean[board.size()];
+        this.pending = new int[board.size()];
+        this.work = new int[board.size()];
+        setPreferredSize(new Dimension(sideX * cellSize + 1, sideY * cellSize + 1));
+        setIgnoreRepaint(true);
+
+        addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int x = e.getX() / cellSize;
+                int y = e.getY() / cellSize;
+                if (e.getX() >= 0 && e.getY() >= 0 && x < sideX && y < sideY) listener.cellClicked(x, y);
+            }
+        });
+
+        board.addListener(new BoardListener() {
+            @Override
+            public void cellChanged(int index, byte oldState, byte newState) {
+                synchronized (lock) {
+                    if (!dirty[index]) {
+                        dirty[index] = true;
+                        pending[pendingCount++] = index;
+                    }
+                    // Обычное хранилище сообщает об уходе Кота раньше прихода, параллельное - позже;
+                    // уход не стирает новую Ячейку, а приход начинает движение с последней
+                    boolean wasCat = (oldState & Board.OCCUPIED) != 0, isCat = (newState & Board.OCCUPIED) != 0;
+                    if (wasCat && !isCat) {
+                        catFrom = index;
+                        if (catTo == index) catTo = -1;
+                    }
+                    if (!wasCat && isCat) {
+                        if (catTo >= 0) catFrom = catTo;
+                        else if (catFrom < 0) catFrom = index;
+                        catTo = index;
+                        moveStart = System.nanoTime();
+                    }
+                }
+            }
+
+            @Override
+            public void boardReset() {
+                synchronized (lock) {
+                    allDirty = true;
+                    catFrom = catTo = -1;
+                }
+            }
+        });
+    }
+
+    /**
+     * Частота кадров за последнюю секунду
+     */
+    double getFramesPerSecond() { return framesPerSecond; }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        running = true;
+        renderer = Thread.ofPlatform().name("board-renderer").daemon().start(this::renderLoop);
+    }
+
+    @Override
+    public void removeNotify() {
+        running = false;
+        LockSupport.unpark(renderer);
+        try {
+            renderer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        super.removeNotify();
+    }
+
+    private void renderLoop() {
+        createBufferStrategy(2);
+        BufferStrategy strategy = getBufferStrategy();
+        prepareSprites();
+
+        long next = System.nanoTime();
+        long second = next;
+        int frames = 0;
+        while (running) {
+            long now = System.nanoTime();
+            updateBackground();
+            do {
+                do {
+                    Graphics g = strategy.getDrawGraphics();
+                    render(g, now);
+                    g.dispose();
+                } while (strategy.contentsRestored());
+                strategy.show();
+            } while (strategy.contentsLost());
+            Toolkit.getDefaultToolkit().sync();
+
+            frames++;
+            if (now - second >= 1_000_000_000L) {
+                framesPerSecond = frames * 1e9 / (now - second);
+                frames = 0;
+                second = now;
+            }
+            next += FRAME_NANOS;
+            long delay = next - System.nanoTime();
+            if (delay > 0) LockSupport.parkNanos(delay);
+            else next = System.nanoTime();
+        }
+    }
+
+    /**
+     * Нарисовать изображения Ячеек и Кота под конфигурацию экрана
+     */
+    private void prepareSprites() {
+        GraphicsConfiguration configuration = getGraphicsConfiguration();
+        int size = cellSize + 1;
+        sprites = new BufferedImage[4];
+        Color[] colors = {Color.WHITE, Color.GRAY, Color.BLUE, Color.LIGHT_GRAY};
+        for (int i = 0; i < sprites.length; i++) {
+            sprites[i] = configuration.createCompatibleImage(size, size, Transparency.OPAQUE);
+            Graphics2D g = sprites[i].createGraphics();
+            g.setColor(colors[i]);
+            g.fillRect(0, 0, size, size);
+            if (i != DESTROYED && cellSize >= 6) {
+                g.setColor(Color.BLACK);
+                g.drawRect(0, 0, cellSize, cellSize);
+            }
+            g.dispose();
+        }
+
+        catSprite = configuration.createCompatibleImage(size, size, Transparency.TRANSLUCENT);
+        Graphics2D g = catSprite.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        int margin = cellSize / 12;
+        g.setColor(Color.ORANGE);
+        g.fillOval(margin, margin, cellSize - 2 * margin, cellSize - 2 * margin);
+        if (cellSize >= 40) {
+            g.setColor(Color.BLACK);
+            g.drawString("Кот", cellSize / 2 - 10, cellSize / 2);
+        }
+        g.dispose();
+
+        background = configuration.createCompatibleImage(sideX * cellSize + 1, sideY * cellSize + 1, Transparency.OPAQUE);
+    }
+
+    /**
+     * Перенести в фоновый буфер Ячейки, изменившиеся с прошлого кадра
+     */
+    private void updateBackground() {
+        boolean all;
+        int count;
+        synchronized (lock) {
+            all = allDirty;
+            allDirty = false;
+            count = pendingCount;
+            System.arraycopy(pending, 0, work, 0, count);
+            for (int i = 0; i < count; i++) dirty[pending[i]] = false;
+            pendingCount = 0;
+        }
+        if (!all && count == 0) return;
+
+        Graphics2D g = background.createGraphics();
+        if (all) {
+            for (int i = 0; i < board.size(); i++) drawCell(g, i);
+        } else {
+            for (int i = 0; i < count; i++) drawCell(g, work[i]);
+        }
+        g.dispose();
+    }
+
+    private void drawCell(Graphics2D g, int index) {
+        int sprite;
+        if (board.has(index, Board.DESTROYED)) sprite = DESTROYED;
+        else if (board.has(index, Board.BLOCKED)) sprite = BLOCKED;
+        else if (board.has(index, Board.FROZEN)) sprite = FROZEN;
+        else sprite = OPEN;
+        g.drawImage(sprites[sprite], board.x(index) * cellSize, board.y(index) * cellSize, null);
+    }
+
+    /**
+     * Кадр: фон и Кот между Ячейками хода
+     */
+    private void render(Graphics g, long now) {
+        g.drawImage(background, 0, 0, null);
+
+        int from, to;
+        long start;
+        synchronized (lock) {
+            from = catFrom;
+            to = catTo;
+            start = moveStart;
+        }
+        if (to < 0) return;
+
+        double t = Math.min(1.0, (now - start) / (double) MOVE_NANOS);
+        t = 1 - (1 - t) * (1 - t);
+        double x = board.x(from) + (board.x(to) - board.x(from)) * t;
+        double y = board.y(from) + (board.y(to) - board.y(from)) * t;
+        g.drawImage(catSprite, (int) Math.round(x * cellSize), (int) Math.round(y * cellSize), null);
+    }
+}
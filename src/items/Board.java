@@ -0,0 +1,547 @@
+package items;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Упакованное хранилище Ячеек прямоугольного Поля.<br>
+ * Состояние каждой Ячейки хранится одним байтом флагов, соседи вычисляются по индексу,
+ * а {@link Cell} является лишь представлением над этим хранилищем.
+ * <p>
+ * В параллельном режиме ({@link #Board(int, int, boolean)}) Ячейка с индексом {@code i}
+ * относится к полосе {@code i % }{@value #STRIPES}. Изменение Ячейки берет замок ее полосы,
+ * ход Кота - замки двух полос по возрастанию; флаги меняются сравнением с обменом, поэтому
+ * чтение не блокируется. Наблюдатели получают изменения одной Ячейки по порядку под замком
+ * ее полосы, а от изменений других Ячеек защищаются сами, замком из {@link #newLock()}.
+ */
+final class Board {
+    static final byte BLOCKED = 1;
+    static final byte FROZEN = 1 << 1;
+    static final byte DESTROYED = 1 << 2;
+    static final byte OCCUPIED = 1 << 3;
+
+    // Ячейки с любым из этих флагов непроходимы для Кота
+    static final byte CLOSED = BLOCKED | FROZEN | DESTROYED;
+
+    static final int STRIPES = 64;
+
+    private static final VarHandle STATE = MethodHandles.arrayElementVarHandle(byte[].class);
+    private static final VarHandle OCCUPANTS = MethodHandles.arrayElementVarHandle(Cat[].class);
+    private static final VarHandle VIEWS = MethodHandles.arrayElementVarHandle(Cell[].class);
+    private static final VarHandle HASH;
+
+    // Замок наблюдателей обычного хранилища: одна партия живет в одном потоке
+    private static final Lock NO_LOCK = new Lock() {
+        @Override public void lock() {}
+        @Override public void lockInterruptibly() {}
+        @Override public boolean tryLock() { return true; }
+        @Override public boolean tryLock(long time, TimeUnit unit) { return true; }
+        @Override public void unlock() {}
+        @Override public Condition newCondition() { throw new UnsupportedOperationException(); }
+    };
+
+    static {
+        try {
+            HASH = MethodHandles.lookup().findVarHandle(Board.class, "hash", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final int side_x, side_y;
+    private final int origin_x, origin_y;
+    private final byte[] state;
+    private final boolean concurrent;
+
+    // Котов на Поле единицы, поэтому они хранятся разреженно: индекс Ячейки и сам Кот
+    private int[] catCells;
+    private Cat[] cats;
+    private int catCount = 0;
+
+    // Представления Ячеек создаются при первом обращении и дальше переиспользуются
+    private Cell[] views;
+
+    // В параллельном режиме Кот хранится у каждой Ячейки, а связи меняются под замками полос
+    private final Cat[] occupants;
+    private final ReentrantLock[] stripes;
+
+    private volatile BoardListener[] listeners = new BoardListener[0];
+    private long hash = 0;
+
+    /**
+     * Создает пустое хранилище для Поля заданного размера.
+     *
+     * @param sideX Длина Поля (X-координата)
+     * @param sideY Ширина Поля (Y-координата)
+     */
+    Board(int sideX, int sideY) {
+        this(sideX, sideY, 0, 0, false);
+    }
+
+    /**
+     * Создает пустое хранилище, которое можно менять из нескольких потоков.
+     *
+     * @param sideX      Длина Поля (X-координата)
+     * @param sideY      Ширина Поля (Y-координата)
+     * @param concurrent {@code true} - параллельный режим
+     */
+    Board(int sideX, int sideY, boolean concurrent) {
+        this(sideX, sideY, 0, 0, concurrent);
+    }
+
+    private Board(int sideX, int sideY, int originX, int originY, boolean concurrent) {
+        side_x = sideX;
+        side_y = sideY;
+        origin_x = originX;
+        origin_y = originY;
+        state = new byte[sideX * sideY];
+        this.concurrent = concurrent;
+        if (concurrent) {
+            occupants = new Cat[state.length];
+            views = new Cell[state.length];
+            stripes = new ReentrantLock[STRIPES];
+            for (int i = 0; i < STRIPES; i++) stripes[i] = new ReentrantLock();
+        } else {
+            occupants = null;
+            stripes = null;
+        }
+    }
+
+    /**
+     * Хранилище из одной Ячейки для Ячеек, созданных вне Поля.
+     */
+    static Board detached(int x, int y) { return new Board(1, 1, x, y, false); }
+
+    boolean isConcurrent() { return concurrent; }
+
+    int getSideX() { return side_x; }
+    int getSideY() { return side_y; }
+    int size() { return state.length; }
+
+    /**
+     * Индекс Ячейки по координатам или {@code -1}, если координаты вне Поля
+     */
+    int index(int x, int y) {
+        x -= origin_x;
+        y -= origin_y;
+        if (x < 0 || y < 0 || x >= side_x || y >= side_y) return -1;
+        return y * side_x + x;
+    }
+
+    /**
+     * Ячейка по индексу. Одна и та же Ячейка возвращается при каждом обращении,
+     * поэтому ходы по Полю не создают объектов.
+     */
+    Cell cell(int index) {
+        if (concurrent) {
+            Cell cell = (Cell) VIEWS.getAcquire(views, index);
+            if (cell != null) return cell;
+            Cell created = new Cell(this, index);
+            cell = (Cell) VIEWS.compareAndExchange(views, index, null, created);
+            return cell == null ? created : cell;
+        }
+        if (views == null) views = new Cell[state.length];
+        Cell cell = views[index];
+        if (cell == null) views[index] = cell = new Cell(this, index);
+        return cell;
+    }
+
+    /**
+     * Связать с индексом Ячейку, созданную вне хранилища
+     */
+    void bind(int index, Cell cell) {
+        if (views == null) views = new Cell[state.length];
+        views[index] = cell;
+    }
+
+    int x(int index) { return origin_x + index % side_x; }
+    int y(int index) { return origin_y + index / side_x; }
+
+    /**
+     * Подписать наблюдателя на изменения Ячеек
+     */
+    void addListener(BoardListener listener) {
+        addListener(listener, null);
+    }
+
+    /**
+     * Подписать наблюдателя, построив его начальное состояние.<br>
+     * В параллельном режиме построение и подписка идут под замками всех полос,
+     * поэтому наблюдатель не пропустит изменение, сделанное между ними.
+     *
+     * @param build построение по текущему состоянию Ячеек или {@code null}
+     */
+    void addListener(BoardListener listener, Runnable build) {
+        lockAll();
+        try {
+            if (build != null) build.run();
+            BoardListener[] added = Arrays.copyOf(listeners, listeners.length + 1);
+            added[added.length - 1] = listener;
+            listeners = added;
+        } finally {
+            unlockAll();
+        }
+    }
+
+    byte state(int index) { return concurrent ? (byte) STATE.getAcquire(state, index) : state[index]; }
+
+    /**
+     * Хеш Зобриста состояния всех Ячеек, включая положение Котов
+     */
+    long hash() { return concurrent ? (long) HASH.getAcquire(this) : hash; }
+
+    void setState(int index, byte flags) {
+        if (concurrent) {
+            update(index, ~0, flags, 0);
+            return;
+        }
+        byte old = state[index];
+        if (old == flags) return;
+        state[index] = flags;
+        hash ^= Zobrist.delta(index, old, flags);
+        for (BoardListener listener : listeners) listener.cellChanged(index, old, flags);
+    }
+
+    boolean has(int index, byte flag) { return (state(index) & flag) != 0; }
+
+    void set(int index, byte flag, boolean value) {
+        if (concurrent) {
+            update(index, value ? 0 : flag, value ? flag : 0, 0);
+            return;
+        }
+        setState(index, (byte) (value ? state[index] | flag : state[index] & ~flag));
+    }
+
+    /**
+     * Поставить флаг, только если у Ячейки нет ни одного из запрещающих флагов.<br>
+     * В параллельном режиме проверка и запись атомарны: например, Кот не зайдет в Ячейку
+     * между проверкой {@link #OCCUPIED} и блокировкой.
+     *
+     * @param forbidden флаги, при которых Ячейка не меняется
+     * @return {@code false}, если у Ячейки был запрещающий флаг
+     */
+    boolean setIfNone(int index, byte flag, byte forbidden) {
+        if (concurrent) return update(index, 0, flag, forbidden);
+        if ((state[index] & forbidden) != 0) return false;
+        set(index, flag, true);
+        return true;
+    }
+
+    /**
+     * Может ли Кот зайти в Ячейку
+     */
+    boolean isOpen(int index) { return (state(index) & CLOSED) == 0; }
+
+    /**
+     * Сменить флаги Ячейки в параллельном режиме под замком ее полосы
+     *
+     * @param clear     снимаемые флаги
+     * @param set       ставимые флаги
+     * @param forbidden флаги, при которых Ячейка не меняется
+     * @return {@code false}, если у Ячейки был запрещающий флаг
+     */
+    private boolean update(int index, int clear, int set, int forbidden) {
+        ReentrantLock lock = stripes[stripe(index)];
+        lock.lock();
+        try {
+            return exchange(index, clear, set, forbidden);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean exchange(int index, int clear, int set, int forbidden) {
+        byte old, flags;
+        do {
+            old = (byte) STATE.getVolatile(state, index);
+            if ((old & forbidden) != 0) return false;
+            flags = (byte) (old & ~clear | set);
+            if (old == flags) return true;
+        } while (!STATE.compareAndSet(state, index, old, flags));
+        changed(index, old, flags);
+        return true;
+    }
+
+    private void changed(int index, byte old, byte flags) {
+        HASH.getAndBitwiseXor(this, Zobrist.delta(index, old, flags));
+        for (BoardListener listener : listeners) listener.cellChanged(index, old, flags);
+    }
+
+    /**
+     * Лежит ли Ячейка на краю Поля
+     */
+    boolean onBorder(int index) {
+        int x = index % side_x;
+        return x == 0 || x == side_x - 1 || index < side_x || index >= state.length - side_x;
+    }
+
+    /**
+     * Вернуть все Ячейки в начальное состояние и убрать Котов
+     *
+     * @param blocked маска заблокированных Ячеек или {@code null}
+     */
+    void reset(boolean[] blocked) {
+        if (concurrent) {
+            lockAll();
+            try {
+                resetOccupants(blocked);
+            } finally {
+                unlockAll();
+            }
+            return;
+        }
+        Arrays.fill(state, (byte) 0);
+        for (int i = 0; i < catCount; i++) {
+            Cat cat = cats[i];
+            cats[i] = null;
+            cat.unsetCell();
+        }
+        catCount = 0;
+        hash = 0;
+        if (blocked != null) {
+            for (int i = 0; i < blocked.length; i++) {
+                if (!blocked[i]) continue;
+                state[i] = BLOCKED;
+                hash ^= Zobrist.key(i, BLOCKED);
+            }
+        }
+        for (BoardListener listener : listeners) listener.boardReset();
+    }
+
+    private void resetOccupants(boolean[] blocked) {
+        for (int i = 0; i < occupants.length; i++) {
+            Cat cat = occupants[i];
+            if (cat == null) continue;
+            occupants[i] = null;
+            if (isAt(cat, i)) cat.link(null);
+        }
+        long key = 0;
+        for (int i = 0; i < state.length; i++) {
+            byte flags = blocked != null && blocked[i] ? BLOCKED : 0;
+            state[i] = flags;
+            if (flags != 0) key ^= Zobrist.key(i, flags);
+        }
+        HASH.setVolatile(this, key);
+        for (BoardListener listener : listeners) listener.boardReset();
+    }
+
+    /**
+     * Индекс соседней Ячейки или {@code -1}, если соседа нет или одна из Ячеек уничтожена.
+     */
+    int neighbor(int index, Side side) {
+        if (has(index, DESTROYED)) return -1;
+        int next = adjacent(index, side);
+        if (next < 0 || has(next, DESTROYED)) return -1;
+        return next;
+    }
+
+    /**
+     * Индекс соседней по сетке Ячейки или {@code -1} на краю Поля, без учета уничтожения.
+     */
+    int adjacent(int index, Side side) {
+        return switch (side) {
+            case LEFT -> index % side_x > 0 ? index - 1 : -1;
+            case RIGHT -> index % side_x < side_x - 1 ? index + 1 : -1;
+            case TOP -> index >= side_x ? index - side_x : -1;
+            case BOTTOM -> index + side_x < state.length ? index + side_x : -1;
+        };
+    }
+
+    /**
+     * Получить Кота в Ячейке
+     */
+    Cat catAt(int index) {
+        if (concurrent) {
+            // Связь меняется записью Ячейки в Кота: до нее Кот еще в старой Ячейке, после - уже в новой
+            Cat cat = (Cat) OCCUPANTS.getAcquire(occupants, index);
+            return cat != null && isAt(cat, index) ? cat : null;
+        }
+        if (!has(index, OCCUPIED)) return null;
+        for (int i = 0; i < catCount; i++) {
+            if (catCells[i] == index) return cats[i];
+        }
+        return null;
+    }
+
+    /**
+     * Поместить Кота в Ячейку, заменив прежнего, если он был
+     */
+    void putCat(int index, Cat cat) {
+        set(index, OCCUPIED, true);
+        for (BoardListener listener : listeners) listener.catChanged(index, cat);
+        for (int i = 0; i < catCount; i++) {
+            if (catCells[i] == index) {
+                cats[i] = cat;
+                return;
+            }
+        }
+        if (cats == null) {
+            catCells = new int[1];
+            cats = new Cat[1];
+        } else if (catCount == cats.length) {
+            catCells = Arrays.copyOf(catCells, catCount * 2);
+            cats = Arrays.copyOf(cats, catCount * 2);
+        }
+        catCells[catCount] = index;
+        cats[catCount] = cat;
+        catCount++;
+    }
+
+    /**
+     * Убрать Кота из Ячейки
+     */
+    void removeCat(int index) {
+        Cat cat = catAt(index);
+        set(index, OCCUPIED, false);
+        if (cat != null) for (BoardListener listener : listeners) listener.catChanged(index, cat);
+        for (int i = 0; i < catCount; i++) {
+            if (catCells[i] == index) {
+                catCount--;
+                catCells[i] = catCells[catCount];
+                cats[i] = cats[catCount];
+                cats[catCount] = null;
+                return;
+            }
+        }
+    }
+
+    private boolean isAt(Cat cat, int index) {
+        Cell cell = cat.getCell();
+        return cell != null && cell.board() == this && cell.index() == index;
+    }
+
+    /**
+     * Индекс Ячейки этого хранилища, в которой стоит Кот, или {@code -1}
+     */
+    private int locate(Cat cat) {
+        Cell cell = cat.getCell();
+        if (cell == null || cell.board() != this) return -1;
+        return OCCUPANTS.getAcquire(occupants, cell.index()) == cat ? cell.index() : -1;
+    }
+
+    /**
+     * Поставить Кота в Ячейку в параллельном режиме. Кот уходит из прежней Ячейки тем же
+     * действием, прежний Кот Ячейки убирается.
+     *
+     * @throws IllegalStateException Если Ячейка закрыта
+     */
+    void placeCat(int index, Cat cat) {
+        Cell old = cat.getCell();
+        if (old != null && old.board() != this && old.getCat() == cat) old.unsetCat();
+        relink(-2, index, cat);
+    }
+
+    /**
+     * Перевести Кота в соседнюю Ячейку в параллельном режиме
+     *
+     * @throws IllegalStateException Если Кот уже ушел из Ячейки {@code from}, Ячейка {@code to} закрыта
+     *                               или в ней другой Кот
+     */
+    void moveCat(int from, int to, Cat cat) {
+        relink(from, to, cat);
+    }
+
+    /**
+     * Убрать Кота с хранилища в параллельном режиме, где бы он ни стоял
+     */
+    void releaseCat(Cat cat) {
+        relink(-2, -1, cat);
+    }
+
+    /**
+     * Убрать Кота из Ячейки в параллельном режиме
+     */
+    void releaseCell(int index) {
+        Cat cat = catAt(index);
+        if (cat != null) relink(index, -1, cat);
+    }
+
+    /**
+     * Перенести Кота под замками полос обеих Ячеек
+     *
+     * @param expected Ячейка, где должен стоять Кот; {@code -2} - любая
+     * @param to       Новая Ячейка; {@code -1} - убрать Кота
+     */
+    private void relink(int expected, int to, Cat cat) {
+        for (;;) {
+            int from = locate(cat);
+            if (expected != -2 && from != expected) {
+                if (to < 0) return;
+                throw new IllegalStateException("Кот уже ушел из клетки!");
+            }
+            if (from == to) return;
+            ReentrantLock first = stripes[Math.min(stripe(from), stripe(to))];
+            ReentrantLock second = stripes[Math.max(stripe(from), stripe(to))];
+            first.lock();
+            if (second != first) second.lock();
+            try {
+                // Пока замки не взяты, Кота мог переставить другой поток
+                if (locate(cat) != from) continue;
+                relink(from, to, cat, expected == -2);
+                return;
+            } finally {
+                if (second != first) second.unlock();
+                first.unlock();
+            }
+        }
+    }
+
+    private int stripe(int index) { return index < 0 ? 0 : index & STRIPES - 1; }
+
+    private void relink(int from, int to, Cat cat, boolean replace) {
+        BoardListener[] notified = listeners;
+        if (to >= 0) {
+            byte old, flags;
+            do {
+                old = (byte) STATE.getVolatile(state, to);
+                if ((old & DESTROYED) != 0) throw new IllegalStateException("Клетка уничтожена!");
+                if ((old & BLOCKED) != 0) throw new IllegalStateException("Клетка заблокирована!");
+                if ((old & FROZEN) != 0) throw new IllegalStateException("Клетка заморожена!");
+                // Ход не выгоняет другого Кота, в отличие от постановки
+                if (!replace && (old & OCCUPIED) != 0) throw new IllegalStateException("Клетка занята!");
+                flags = (byte) (old | OCCUPIED);
+            } while (old != flags && !STATE.compareAndSet(state, to, old, flags));
+            if (old != flags) changed(to, old, flags);
+
+            Cat other = (Cat) OCCUPANTS.getAcquire(occupants, to);
+            if (other != null && isAt(other, to)) {
+                other.link(null);
+                for (BoardListener listener : notified) listener.catChanged(to, other);
+            }
+            OCCUPANTS.setRelease(occupants, to, cat);
+            cat.link(cell(to));
+            for (BoardListener listener : notified) listener.catChanged(to, cat);
+        }
+        if (from >= 0) {
+            OCCUPANTS.setRelease(occupants, from, null);
+            if (to < 0) cat.link(null);
+            exchange(from, OCCUPIED, 0, 0);
+            for (BoardListener listener : notified) listener.catChanged(from, cat);
+        }
+    }
+
+    /**
+     * Взять замки всех полос, чтобы другие потоки не меняли Ячейки.
+     * Вне параллельного режима ничего не делает.
+     */
+    void lockAll() {
+        if (!concurrent) return;
+        for (ReentrantLock lock : stripes) lock.lock();
+    }
+
+    void unlockAll() {
+        if (!concurrent) return;
+        for (int i = stripes.length - 1; i >= 0; i--) stripes[i].unlock();
+    }
+
+    /**
+     * Замок, которым наблюдатель защищает свое состояние от других потоков.
+     * Вне параллельного режима замок ничего не делает.
+     */
+    Lock newLock() { return concurrent ? new ReentrantLock() : NO_LOCK; }
+}
@@ -0,0 +1,28 @@
+package items;
+
+/**
+ * Наблюдатель за изменениями хранилища Поля.
+ */
+interface BoardListener {
+    /**
+     * Состояние Ячейки изменилось
+     *
+     * @param index    индекс Ячейки
+     * @param oldState флаги до изменения
+     * @param newState флаги после изменения
+     */
+    void cellChanged(int index, byte oldState, byte newState);
+
+    /**
+     * Кот пришел в Ячейку или ушел из нее; вызывается сразу после смены флага Кота
+     *
+     * @param index индекс Ячейки
+     * @param cat   Кот
+     */
+    default void catChanged(int index, Cat cat) {}
+
+    /**
+     * Все Ячейки разом возвращены в начальное состояние, Коты убраны
+     */
+    void boardReset();
+}
@@ -0,0 +1,93 @@
+package items;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Копия Поля на стороне зрителя.<br>
+ * Собирается из кадров {@link ChangeLog}: первым должен прийти полный снимок,
+ * дальше применяются изменения.
+ */
+public class BoardReplica {
+    private int side_x = 0;
+    private int side_y = 0;
+    private byte[] state;
+
+    public int getSideX() { return side_x; }
+    public int getSideY() { return side_y; }
+
+    /**
+     * Получен ли полный снимок Поля
+     */
+    public boolean isSynced() { return state != null; }
+
+    /**
+     * Применить следующий кадр из буфера.<br>
+     * Если кадр пришел не полностью, позиция буфера не меняется.
+     *
+     * @return {@code true}, если кадр применен
+     * @throws IllegalStateException    Если изменения пришли раньше снимка
+     * @throws IllegalArgumentException Если кадр поврежден
+     */
+    public boolean apply(ByteBuffer buffer) {
+        int start = buffer.position();
+        int length;
+        try {
+            length = Varint.read(buffer);
+        } catch (BufferUnderflowException e) {
+            buffer.position(start);
+            return false;
+        }
+        if (buffer.remaining() < length) {
+            buffer.position(start);
+            return false;
+        }
+
+        ByteBuffer frame = buffer.slice(buffer.position(), length);
+        buffer.position(buffer.position() + length);
+        try {
+            switch (frame.get()) {
+                case ChangeLog.SNAPSHOT -> snapshot(frame);
+                case ChangeLog.DELTA -> delta(frame);
+                default -> throw new IllegalArgumentException("Неизвестный тип кадра!");
+            }
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Кадр поврежден!", e);
+        }
+        return true;
+    }
+
+    private void snapshot(ByteBuffer frame) {
+        side_x = Varint.read(frame);
+        side_y = Varint.read(frame);
+        state = new byte[side_x * side_y];
+        for (int i = 0; i < state.length; i += 2) {
+            byte packed = frame.get();
+            state[i] = (byte) (packed & 0x0F);
+            if (i + 1 < state.length) state[i + 1] = (byte) (packed >>> 4 & 0x0F);
+        }
+    }
+
+    private void delta(ByteBuffer frame) {
+        if (state == null) throw new IllegalStateException("Нет начального состояния поля!");
+        int count = Varint.read(frame);
+        for (int i = 0; i < count; i++) {
+            int entry = Varint.read(frame);
+            state[entry >>> 4] = (byte) (entry & 0x0F);
+        }
+    }
+
+    public boolean isBlocked(int x, int y) { return has(x, y, Board.BLOCKED); }
+    public boolean isFrozen(int x, int y) { return has(x, y, Board.FROZEN); }
+    public boolean isDestroyed(int x, int y) { return has(x, y, Board.DESTROYED); }
+
+    /**
+     * Стоит ли в Ячейке Кот
+     */
+    public boolean isOccupied(int x, int y) { return has(x, y, Board.OCCUPIED); }
+
+    private boolean has(int x, int y, byte flag) {
+        if (state == null || x < 0 || y < 0 || x >= side_x || y >= side_y) return false;
+        return (state[y * side_x + x] & flag) != 0;
+    }
+}
@@ -0,0 +1,246 @@
+package items;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Поле на экране.<br>
+ * Один компонент рисует Поле квадратными плитками по {@value #TILE} пикселей. Плитки
+ * рисуются только для видимой области и хранятся в кэше для каждого масштаба; при изменении
+ * Ячейки плитки текущего масштаба дорисовываются, а плитки других масштабов забываются.
+ * Ячейка под курсором определяется делением координат на размер Ячейки.
+ * Масштаб меняется колесом мыши с нажатым Ctrl.
+ */
+class BoardView extends JComponent implements Scrollable {
+    /**
+     * Обработчик щелчка по Ячейке
+     */
+    @FunctionalInterface
+    interface CellListener {
+        void cellClicked(int x, int y);
+    }
+
+    static final int[] ZOOM = {2, 3, 4, 6, 8, 12, 16, 24, 32, 45, 60};
+    private static final int TILE = 256;
+    private static final int MAX_TILES = 192;
+    private static final int MIN_GRID = 6;
+
+    private final Field field;
+    private final Board board;
+    private int zoom;
+    private int cellSize;
+
+    private final Map<Long, BufferedImage> tiles = new LinkedHashMap<>(MAX_TILES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, BufferedImage> eldest) { return size() > MAX_TILES; }
+    };
+
+    /**
+     * Создает изображение Поля.
+     *
+     * @param field    Поле
+     * @param zoom     Номер масштаба в {@link #ZOOM}
+     * @param listener Обработчик щелчков по Ячейкам
+     */
+    BoardView(Field field, int zoom, CellListener listener) {
+        this.field = field;
+        this.board = field.board();
+        this.zoom = Math.max(0, Math.min(ZOOM.length - 1, zoom));
+        this.cellSize = ZOOM[this.zoom];
+        setOpaque(true);
+        setBackground(Color.LIGHT_GRAY);
+
+        MouseAdapter mouse = new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int x = e.getX() / cellSize;
+                int y = e.getY() / cellSize;
+                if (e.getX() >= 0 && e.getY() >= 0 && x < field.getSideX() && y < field.getSideY()) listener.cellClicked(x, y);
+            }
+
+            @Override
+            public void mouseWheelMoved(MouseWheelEvent e) {
+                if (e.isControlDown()) zoom(BoardView.this.zoom - e.getWheelRotation(), e.getPoint());
+                else getParent().dispatchEvent(SwingUtilities.convertMouseEvent(BoardView.this, e, getParent()));
+            }
+        };
+        addMouseListener(mouse);
+        addMouseWheelListener(mouse);
+
+        board.addListener(new BoardListener() {
+            @Override
+            public void cellChanged(int index, byte oldState, byte newState) { cellDirty(index); }
+
+            @Override
+            public void boardReset() {
+                tiles.clear();
+                repaint();
+            }
+        });
+    }
+
+    /**
+     * Самый крупный масштаб, при котором Поле помещается в заданный размер
+     */
+    static int fittingZoom(Field field, int width, int height) {
+        int zoom = 0;
+        while (zoom + 1 < ZOOM.length && field.getSideX() * ZOOM[zoom + 1] <= width && field.getSideY() * ZOOM[zoom + 1] <= height) zoom++;
+        return zoom;
+    }
+
+    /**
+     * Сменить масштаб, оставив точку под курсором на месте
+     *
+     * @param newZoom Номер масштаба в {@link #ZOOM}
+     * @param anchor  Точка компонента, которая должна остаться под курсором
+     */
+    void zoom(int newZoom, Point anchor) {
+        newZoom = Math.max(0, Math.min(ZOOM.length - 1, newZoom));
+        if (newZoom == zoom) return;
+        int oldSize = cellSize;
+        zoom = newZoom;
+        cellSize = ZOOM[zoom];
+
+        Rectangle visible = getVisibleRect();
+        int screenX = anchor.x - visible.x, screenY = anchor.y - visible.y;
+        revalidate();
+        if (getParent() instanceof JViewport viewport) {
+            setSize(getPreferredSize());
+            int x = (int) ((long) anchor.x * cellSize / oldSize) - screenX;
+            int y = (int) ((long) anchor.y * cellSize / oldSize) - screenY;
+            Dimension extent = viewport.getExtentSize();
+            x = Math.max(0, Math.min(x, getWidth() - extent.width));
+            y = Math.max(0, Math.min(y, getHeight() - extent.height));
+            viewport.setViewPosition(new Point(x, y));
+        }
+        repaint();
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        return new Dimension(field.getSideX() * cellSize + 1, field.getSideY() * cellSize + 1);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) clip = new Rectangle(0, 0, getWidth(), getHeight());
+        g.setColor(getBackground());
+        g.fillRect(clip.x, clip.y, clip.width, clip.height);
+
+        int width = field.getSideX() * cellSize + 1, height = field.getSideY() * cellSize + 1;
+        int fromX = Math.max(0, clip.x) / TILE, toX = Math.min(width - 1, clip.x + clip.width - 1) / TILE;
+        int fromY = Math.max(0, clip.y) / TILE, toY = Math.min(height - 1, clip.y + clip.height - 1) / TILE;
+        for (int ty = fromY; ty <= toY; ty++) {
+            for (int tx = fromX; tx <= toX; tx++) g.drawImage(tile(tx, ty), tx * TILE, ty * TILE, null);
+        }
+    }
+
+    private static long key(int zoom, int tx, int ty) { return (long) zoom << 48 | (long) ty << 24 | tx; }
+
+    /**
+     * Плитка текущего масштаба; рисуется, если ее нет в кэше
+     */
+    private BufferedImage tile(int tx, int ty) {
+        long key = key(zoom, tx, ty);
+        BufferedImage tile = tiles.get(key);
+        if (tile != null) return tile;
+
+        tile = new BufferedImage(TILE, TILE, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = tile.createGraphics();
+        g.setColor(getBackground());
+        g.fillRect(0, 0, TILE, TILE);
+        g.translate(-tx * TILE, -ty * TILE);
+        int fromX = Math.max(0, (tx * TILE - 1) / cellSize), toX = Math.min(field.getSideX() - 1, ((tx + 1) * TILE - 1) / cellSize);
+        int fromY = Math.max(0, (ty * TILE - 1) / cellSize), toY = Math.min(field.getSideY() - 1, ((ty + 1) * TILE - 1) / cellSize);
+        for (int y = fromY; y <= toY; y++) {
+            for (int x = fromX; x <= toX; x++) drawCell(g, board.index(x, y));
+        }
+        g.dispose();
+        tiles.put(key, tile);
+        return tile;
+    }
+
+    /**
+     * Ячейка изменилась: дорисовать ее в плитки текущего масштаба, забыть остальные масштабы
+     * и перерисовать на экране только ее прямоугольник
+     */
+    private void cellDirty(int index) {
+        for (int level = 0; level < ZOOM.length; level++) {
+            int size = ZOOM[level];
+            int left = board.x(index) * size, top = board.y(index) * size;
+            for (int ty = top / TILE; ty <= (top + size) / TILE; ty++) {
+                for (int tx = left / TILE; tx <= (left + size) / TILE; tx++) {
+                    long key = key(level, tx, ty);
+                    if (level != zoom) {
+                        tiles.remove(key);
+                        continue;
+                    }
+                    BufferedImage tile = tiles.get(key);
+                    if (tile == null) continue;
+                    Graphics2D g = tile.createGraphics();
+                    g.translate(-tx * TILE, -ty * TILE);
+                    drawCell(g, index);
+                    g.dispose();
+                }
+            }
+        }
+        repaint(board.x(index) * cellSize, board.y(index) * cellSize, cellSize + 1, cellSize + 1);
+    }
+
+    private void drawCell(Graphics2D g, int index) {
+        int x = board.x(index) * cellSize;
+        int y = board.y(index) * cellSize;
+
+        if (board.has(index, Board.DESTROYED)) {
+            g.setColor(getBackground());
+            g.fillRect(x, y, cellSize + 1, cellSize + 1);
+            return;
+        }
+        if (board.has(index, Board.BLOCKED)) g.setColor(Color.GRAY);
+        else if (board.has(index, Board.FROZEN)) g.setColor(Color.BLUE);
+        else g.setColor(Color.WHITE);
+        g.fillRect(x, y, cellSize, cellSize);
+
+        if (cellSize >= MIN_GRID) {
+            g.setColor(Color.BLACK);
+            g.drawRect(x, y, cellSize, cellSize);
+        }
+
+        if (board.has(index, Board.OCCUPIED)) {
+            int margin = cellSize / 12;
+            g.setColor(Color.ORANGE);
+            g.fillOval(x + margin, y + margin, cellSize - 2 * margin, cellSize - 2 * margin);
+            if (cellSize < 40) return;
+            g.setColor(Color.BLACK);
+            g.drawString("Кот", x + cellSize / 2 - 10, y + cellSize / 2);
+        }
+    }
+
+    @Override
+    public Dimension getPreferredScrollableViewportSize() {
+        Dimension screen = Toolkit.getDefaultToolkit().getScreenSize();
+        Dimension size = getPreferredSize();
+        return new Dimension(Math.min(size.width, screen.width * 3 / 4), Math.min(size.height, screen.height * 3 / 4));
+    }
+
+    @Override
+    public int getScrollableUnitIncrement(Rectangle visible, int orientation, int direction) { return cellSize; }
+
+    @Override
+    public int getScrollableBlockIncrement(Rectangle visible, int orientation, int direction) {
+        return orientation == SwingConstants.HORIZONTAL ? visible.width - cellSize : visible.height - cellSize;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportWidth() { return false; }
+
+    @Override
+    public boolean getScrollableTracksViewportHeight() { return false; }
+}
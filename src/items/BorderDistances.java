@@ -0,0 +1,274 @@
+package items;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Расстояния от Ячеек Поля до его края.<br>
+ * Карта строится один раз и дальше поддерживается инкрементально: при блокировке,
+ * заморозке, разблокировке или уничтожении Ячейки пересчитываются только Ячейки,
+ * кратчайший путь которых прошел через нее. Карта помнит, какие Ячейки открыты, по потоку
+ * событий и не читает флаги хранилища при правках: на параллельном Поле хранилище может
+ * уже опережать события. На параллельном Поле карта защищена собственным замком.
+ * <p>
+ * Карта знает только соседей по сетке хранилища. Соседи, заданные через
+ * {@link Cell#setNeighbor}, не учитываются: Кот пойдет по такой связи, если ход совпадет с ее
+ * стороной, но расстояния и {@link #nextMove()} считаются так, будто связей нет.
+ */
+public class BorderDistances {
+    private static final Side[] SIDES = Side.values();
+    private static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private final Field field;
+    private final Board board;
+    private final Lock lock;
+    private final int[] distances;
+    private final boolean[] open;
+
+    private final int[] queue;
+    private final int[] affected;
+    private int stamp = 0;
+    private long[] heap = new long[16];
+    private int heapSize = 0;
+
+    /**
+     * Создает карту расстояний для Поля и подписывает ее на изменения Ячеек.
+     *
+     * @param field Поле
+     */
+    BorderDistances(Field field) {
+        this.field = field;
+        this.board = field.board();
+        lock = board.newLock();
+        distances = new int[board.size()];
+        open = new boolean[board.size()];
+        queue = new int[board.size()];
+        affected = new int[board.size()];
+
+        board.addListener(new BoardListener() {
+            @Override
+            public void cellChanged(int index, byte oldState, byte newState) {
+                boolean wasOpen = (oldState & Board.CLOSED) == 0;
+                boolean isOpen = (newState & Board.CLOSED) == 0;
+                if (wasOpen == isOpen) return;
+                lock.lock();
+                try {
+                    open[index] = isOpen;
+                    if (isOpen) opened(index);
+                    else closed(index);
+                } finally {
+                    lock.unlock();
+                }
+            }
+
+            @Override
+            public void boardReset() { rebuild(); }
+        }, this::rebuild);
+    }
+
+    /**
+     * Расстояние от Ячейки до края Поля
+     *
+     * @param x Координата X
+     * @param y Координата Y
+     * @return Число ходов или {@code -1}, если Ячейка вне Поля, закрыта или путь к краю отрезан
+     */
+    public int distance(int x, int y) {
+        lock.lock();
+        try {
+            int index = board.index(x, y);
+            if (index < 0 || distances[index] == UNREACHABLE) return -1;
+            return distances[index];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Лучший ход Кота по карте расстояний.<br>
+     * Ход в соседнюю Ячейку, которая ближе всего к краю Поля. Если путь к краю отрезан,
+     * возвращается любой доступный ход. Соседи, заданные через {@link Cell#setNeighbor},
+     * не учитываются.
+     *
+     * @return Направление хода или {@code null}, если Кота нет на Поле, он уже на краю
+     *         или ходить некуда
+     */
+    public Side nextMove() {
+        lock.lock();
+        try {
+            Cat cat = field.getCat();
+            if (cat == null || cat.getCell() == null || cat.getCell().board() != board) return null;
+
+            int start = cat.getCell().index();
+            if (distances[start] == 0) return null;
+
+            Side best = null;
+            int bestDistance = 0;
+            for (Side side : SIDES) {
+                int next = board.neighbor(start, side);
+                if (next < 0 || !open[next]) continue;
+                if (best == null || distances[next] < bestDistance) {
+                    best = side;
+                    bestDistance = distances[next];
+                }
+            }
+            return best;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Полный пересчет обходом в ширину от всех открытых Ячеек на краю Поля; хранилище при этом не меняется
+     */
+    private void rebuild() {
+        lock.lock();
+        try {
+            Arrays.fill(distances, UNREACHABLE);
+            for (int i = 0; i < open.length; i++) open[i] = board.isOpen(i);
+            int tail = 0;
+            for (int i = 0; i < distances.length; i++) {
+                if (board.onBorder(i) && open[i]) {
+                    distances[i] = 0;
+                    queue[tail++] = i;
+                }
+            }
+            spread(0, tail);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Распространить уменьшение расстояний от Ячеек очереди на их соседей
+     */
+    private void spread(int head, int tail) {
+        while (head < tail) {
+            int current = queue[head++];
+            int next = distances[current] + 1;
+            for (Side side : SIDES) {
+                int neighbor = board.adjacent(current, side);
+                if (neighbor < 0 || !open[neighbor] || distances[neighbor] <= next) continue;
+                distances[neighbor] = next;
+                queue[tail++] = neighbor;
+            }
+        }
+    }
+
+    /**
+     * Ячейка стала проходимой: расстояния могут только уменьшиться
+     */
+    private void opened(int index) {
+        distances[index] = board.onBorder(index) ? 0 : closestNeighbor(index, false);
+        if (distances[index] == UNREACHABLE) return;
+        queue[0] = index;
+        spread(0, 1);
+    }
+
+    /**
+     * Ячейка стала непроходимой: расстояния могут только увеличиться.<br>
+     * Сначала находятся Ячейки, у которых не осталось соседа на кратчайшем пути к краю,
+     * затем расстояния пересчитываются только для них.
+     */
+    private void closed(int index) {
+        if (distances[index] == UNREACHABLE) return;
+        if (++stamp == 0) {
+            Arrays.fill(affected, 0);
+            stamp = 1;
+        }
+
+        affected[index] = stamp;
+        int head = 0, tail = 0;
+        queue[tail++] = index;
+        while (head < tail) {
+            int current = queue[head++];
+            int next = distances[current] + 1;
+            for (Side side : SIDES) {
+                int neighbor = board.adjacent(current, side);
+                if (neighbor < 0 || affected[neighbor] == stamp || distances[neighbor] != next) continue;
+                if (!open[neighbor] || hasSupport(neighbor)) continue;
+                affected[neighbor] = stamp;
+                queue[tail++] = neighbor;
+            }
+        }
+        distances[index] = UNREACHABLE;
+
+        heapSize = 0;
+        for (int i = 1; i < tail; i++) {
+            int cell = queue[i];
+            distances[cell] = closestNeighbor(cell, true);
+            if (distances[cell] != UNREACHABLE) push(distances[cell], cell);
+        }
+        while (heapSize > 0) {
+            long top = pop();
+            int cell = (int) top;
+            int distance = (int) (top >>> 32);
+            if (distance != distances[cell]) continue;
+            for (Side side : SIDES) {
+                int neighbor = board.adjacent(cell, side);
+                if (neighbor < 0 || affected[neighbor] != stamp || !open[neighbor]) continue;
+                if (distances[neighbor] <= distance + 1) continue;
+                distances[neighbor] = distance + 1;
+                push(distance + 1, neighbor);
+            }
+        }
+    }
+
+    /**
+     * Есть ли у Ячейки незатронутый сосед, через которого проходит кратчайший путь к краю
+     */
+    private boolean hasSupport(int index) {
+        if (distances[index] == 0) return true;
+        for (Side side : SIDES) {
+            int neighbor = board.adjacent(index, side);
+            if (neighbor < 0 || affected[neighbor] == stamp || !open[neighbor]) continue;
+            if (distances[neighbor] == distances[index] - 1) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Расстояние через ближайшего к краю открытого соседа
+     *
+     * @param skipAffected не учитывать соседей, расстояние которых еще пересчитывается
+     */
+    private int closestNeighbor(int index, boolean skipAffected) {
+        int best = UNREACHABLE;
+        for (Side side : SIDES) {
+            int neighbor = board.adjacent(index, side);
+            if (neighbor < 0 || !open[neighbor]) continue;
+            if (skipAffected && affected[neighbor] == stamp) continue;
+            if (distances[neighbor] != UNREACHABLE && distances[neighbor] + 1 < best) best = distances[neighbor] + 1;
+        }
+        return best;
+    }
+
+    private void push(int distance, int index) {
+        if (heapSize == heap.length) heap = Arrays.copyOf(heap, heapSize * 2);
+        long entry = ((long) distance << 32) | index;
+        int i = heapSize++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heap[parent] <= entry) break;
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = entry;
+    }
+
+    private long pop() {
+        long top = heap[0];
+        long last = heap[--heapSize];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) break;
+            if (child + 1 < heapSize && heap[child + 1] < heap[child]) child++;
+            if (heap[child] >= last) break;
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = last;
+        return top;
+    }
+}
@@ -1,7 +1,9 @@
 package items;
 
 public class Cat {
-    private Cell cell;
+    private static final Side[] SIDES = Side.values();
+
+    private volatile Cell cell;
 
     /**
      * Создает нового Кота в указанной Ячейке.
@@ -31,6 +33,13 @@ public class Cat {
 
         if (newCell == null) throw new NullPointerException("Кот не может быть в пустой ячейке!");
 
+        if (newCell.sameSquare(this.cell)) return;
+
+        if (newCell.board().isConcurrent()) {
+            newCell.setCat(this);
+            return;
+        }
+
         if (this.cell != null) this.unsetCell();
 
         this.cell = newCell;
@@ -41,19 +50,28 @@ public class Cat {
      * Убрать Кота из Ячейки
      */
     public void unsetCell() {
-        if (this.cell == null) return;
-
         Cell oldCell = this.cell;
+        if (oldCell == null) return;
+        if (oldCell.board().isConcurrent()) {
+            oldCell.board().releaseCat(this);
+            return;
+        }
+
         this.cell = null;
         if (oldCell.getCat() == this) oldCell.unsetCat();
     }
 
+    /**
+     * Сменить Ячейку без обратной связи: ее держит хранилище Поля в параллельном режиме
+     */
+    void link(Cell newCell) { cell = newCell; }
+
     /**
      * Дееспособен ли Кот<br>
      * Проверка есть ли у Кота возможность перемещения в соседние Ячейки.
      */
     public boolean isFunctional() {
-        for (Side side : Side.values()) {
+        for (Side side : SIDES) {
             Cell nextCell = cell.getNeighbor(side);
             if (nextCell != null && !nextCell.isBlocked()) {
                 return true;
@@ -72,12 +90,35 @@ public class Cat {
      *
      */
     public void move(Side side) {
-        Cell NextCell = cell.getNeighbor(side);
+        GameEvents.CatMove event = GameEvents.CAT_MOVE.isEnabled() ? new GameEvents.CatMove() : null;
+        if (event != null) event.begin();
+        Cell current = cell;
+        Cell NextCell = current.getNeighbor(side);
         if (side != null) {
             if (NextCell!=null) {
-                this.cell.unsetCat();
-                NextCell.setCat(this);
+                // Считается только сделанный ход: исключение из переноса Кота не дойдет до stop
+                long start = Metrics.CAT_MOVE.start();
+                if (event != null) {
+                    event.side = side.name();
+                    event.fromX = current.X();
+                    event.fromY = current.Y();
+                }
+                Board board = current.board();
+                if (board.isConcurrent() && NextCell.board() == board) {
+                    board.moveCat(current.index(), NextCell.index(), this);
+                } else {
+                    current.unsetCat();
+                    NextCell.setCat(this);
+                }
+                Metrics.CAT_MOVE.stop(start);
             }
         } else throw new NullPointerException("Кот не может двигаться в неизвестном направлении!");
+        if (event != null && event.side != null) {
+            event.sideX = current.board().getSideX();
+            event.sideY = current.board().getSideY();
+            event.toX = NextCell.X();
+            event.toY = NextCell.Y();
+            event.commit();
+        }
     }
 }
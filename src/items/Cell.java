@@ -4,15 +4,13 @@ import java.util.EnumMap;
 import java.util.Map;
 
 public class Cell {
-    private boolean frozen = false;
-    private boolean occupied = false; // TODO нужен ли этот флаг если можно пользоваться геттером Кота
-    private boolean destroyed = false;
-    private boolean blocked = false;
+    private static final Side[] SIDES = Side.values();
 
-    private int row_x, col_y;
-    private Cat cat;
+    private Board board;
+    private int index;
 
-    private final Map<Side, Cell> neighbors = new EnumMap<>(Side.class);
+    // Явно заданные соседи, перекрывают соседей из хранилища Поля
+    private Cell[] links;
 
     /**
      * Создает новую Клетку с указанными координатами.
@@ -25,18 +23,69 @@ public class Cell {
     public Cell(int row, int col) {
         if (row < 0) throw new IllegalArgumentException("X = " + row + "\nX координата должна быть больше или равна нулю");
         if (col < 0) throw new IllegalArgumentException("Y = " + col + "\nY координата должна быть больше или равна нулю");
-        this.row_x = row;
-        this.col_y = col;
+        this.board = Board.detached(row, col);
+        this.index = 0;
     }
 
-    public boolean isFrozen() { return frozen; }
-    public boolean isOccupied() { return occupied; }
-    public boolean isDestroyed() { return destroyed; }
-    public boolean isBlocked() { return blocked; }
-    public Cat getCat() { return this.cat; }
+    /**
+     * Создает представление Ячейки над хранилищем Поля.
+     *
+     * @param board хранилище Поля
+     * @param index индекс Ячейки в хранилище
+     */
+    Cell(Board board, int index) {
+        this.board = board;
+        this.index = index;
+    }
+
+    public boolean isFrozen() { return board.has(index, Board.FROZEN); }
+    public boolean isOccupied() { return board.has(index, Board.OCCUPIED); }
+    public boolean isDestroyed() { return board.has(index, Board.DESTROYED); }
+    public boolean isBlocked() { return board.has(index, Board.BLOCKED); }
+    public Cat getCat() { return board.catAt(index); }
+
+    Board board() { return board; }
+    int index() { return index; }
 
-    public int X() { return this.row_x; }
-    public int Y() { return this.col_y; }
+    public int X() { return isDestroyed() ? -1 : board.x(index); }
+    public int Y() { return isDestroyed() ? -1 : board.y(index); }
+
+    /**
+     * Перенести Ячейку вместе с ее состоянием и Котом в хранилище Поля
+     *
+     * @param newBoard хранилище Поля
+     * @param newIndex индекс Ячейки в новом хранилище
+     */
+    void attach(Board newBoard, int newIndex) {
+        Cat cat = getCat();
+        newBoard.setState(newIndex, board.state(index));
+        if (cat != null) newBoard.putCat(newIndex, cat);
+        board = newBoard;
+        index = newIndex;
+    }
+
+    /**
+     * Забыть явно заданных соседей, которые совпадают с соседями из хранилища Поля
+     */
+    void dropGridLinks() {
+        if (links == null) return;
+        boolean custom = false;
+        for (Side side : SIDES) {
+            Cell link = links[side.ordinal()];
+            if (link == null) continue;
+            int next = board.neighbor(index, side);
+            if (link.board == board && link.index == next) links[side.ordinal()] = null;
+            else custom = true;
+        }
+        if (!custom) links = null;
+    }
+
+    /**
+     * Указывает ли Ячейка на ту же клетку хранилища, что и другая
+     */
+    boolean sameSquare(Cell other) {
+        return other != null && other.board == board && other.index == index;
+    }
 
     /**
      * Установить соседа для клетки
@@ -44,16 +93,29 @@ public class Cell {
      * @param side сторона, для которой нужно установить соседа
      * @param neighbor клетка-сосед
      */
-    public void setNeighbor(Side side, Cell neighbor) { neighbors.put(side, neighbor); }
+    public void setNeighbor(Side side, Cell neighbor) {
+        if (links == null) links = new Cell[Side.values().length];
+        links[side.ordinal()] = neighbor;
+    }
 
     /**
      * Получить соседа для определенной стороны
      */
-    public Cell getNeighbor(Side side) { return neighbors.get(side); }
+    public Cell getNeighbor(Side side) {
+        if (side == null) return null;
+        if (links != null && links[side.ordinal()] != null) return links[side.ordinal()];
+        int next = board.neighbor(index, side);
+        return next < 0 ? null : board.cell(next);
+    }
 
     // TODO возможно убрать этот метод
     public Map<Side, Cell> getNeighbors() {
-        return new EnumMap<>(neighbors);
+        Map<Side, Cell> neighbors = new EnumMap<>(Side.class);
+        for (Side side : SIDES) {
+            Cell neighbor = getNeighbor(side);
+            if (neighbor != null) neighbors.put(side, neighbor);
+        }
+        return neighbors;
     }
 
     /**
@@ -62,30 +124,37 @@ public class Cell {
      * @param newCat Кот, которого нужно поставить в клетку
      */
     public void setCat(Cat newCat) {
-        if (destroyed) throw new IllegalStateException("Клетка уничтожена!");
-        if (blocked) throw new IllegalStateException("Клетка заблокирована!");
-        if (frozen) throw new IllegalStateException("Клетка заморожена!");
+        if (isDestroyed()) throw new IllegalStateException("Клетка уничтожена!");
+        if (isBlocked()) throw new IllegalStateException("Клетка заблокирована!");
+        if (isFrozen()) throw new IllegalStateException("Клетка заморожена!");
         if (newCat == null) throw new NullPointerException("Кот не может быть null!");
+        if (board.isConcurrent()) {
+            board.placeCat(index, newCat);
+            return;
+        }
 
-        if (this.cat == newCat) return;
+        Cat cat = getCat();
+        if (cat == newCat) return;
 
-        if (this.cat != null) this.unsetCat();
+        if (cat != null) this.unsetCat();
 
-        this.cat = newCat;
-        this.occupied = true;
-        if (newCat.getCell() != this) newCat.setCell(this);
+        board.putCat(index, newCat);
+        if (!sameSquare(newCat.getCell())) newCat.setCell(this);
     }
 
     /**
      * Убрать Кота из Ячейки
      */
     public void unsetCat() {
-        if (this.cat == null) return;
+        if (board.isConcurrent()) {
+            board.releaseCell(index);
+            return;
+        }
+        Cat oldCat = getCat();
+        if (oldCat == null) return;
 
-        Cat oldCat = this.cat;
-        this.cat = null;
-        this.occupied = false;
-        if (oldCat.getCell() == this) oldCat.unsetCell();
+        board.removeCat(index);
+        if (sameSquare(oldCat.getCell())) oldCat.unsetCell();
     }
 
     /**
@@ -96,10 +165,35 @@ public class Cell {
      *                   {@code true} - ячейка блокируется
      *                   {@code false} - ячейка без блокировки
      * @throws RuntimeException Если Ячейка уничтожена
+     * @throws IllegalStateException Если на параллельном Поле в Ячейке стоит Кот
      */
     public void block(boolean blockedFlag) {
-        if (destroyed) throw new RuntimeException("Невозможно заблокировать/разблокировать клетку! Клетка уничтожена");
-        blocked = blockedFlag;
+        if (isDestroyed()) throw new RuntimeException("Невозможно заблокировать/разблокировать клетку! Клетка уничтожена");
+        close(Board.BLOCKED, blockedFlag);
+        GameEvents.cellChanged(board, index, "block", blockedFlag);
+    }
+
+    /**
+     * Заблокировать открытую Ячейку без Кота
+     *
+     * @return {@code false}, если Ячейка уже закрыта или в ней Кот; Ячейка тогда не меняется
+     */
+    boolean tryBlock() {
+        if (!board.setIfNone(index, Board.BLOCKED, (byte) (Board.CLOSED | Board.OCCUPIED))) return false;
+        GameEvents.cellChanged(board, index, "block", true);
+        return true;
+    }
+
+    /**
+     * Поставить или снять закрывающий флаг. На параллельном Поле Ячейка с Котом не закрывается:
+     * проверка и запись атомарны, поэтому Кот не окажется в закрытой Ячейке.
+     */
+    private void close(byte flag, boolean value) {
+        if (!value || !board.isConcurrent()) {
+            board.set(index, flag, value);
+        } else if (!board.setIfNone(index, flag, Board.OCCUPIED)) {
+            throw new IllegalStateException("В клетке кот!");
+        }
     }
 
     /**
@@ -111,26 +205,33 @@ public class Cell {
      *                   {@code true} - ячейка замораживается
      *                   {@code false} - ячейка размораживается
      * @throws RuntimeException Если Ячейка уничтожена
+     * @throws IllegalStateException Если на параллельном Поле в Ячейке стоит Кот
      */
     public void freeze(boolean freezeFlag) {
-        if (destroyed) throw new RuntimeException("Невозможно заморозить/разморозить клетку! Клетка уничтожена");
-        frozen = freezeFlag;
+        if (isDestroyed()) throw new RuntimeException("Невозможно заморозить/разморозить клетку! Клетка уничтожена");
+        close(Board.FROZEN, freezeFlag);
+        GameEvents.cellChanged(board, index, "freeze", freezeFlag);
     }
 
     /**
      * Уничтожить Ячейку
+     *
+     * @throws IllegalStateException Если на параллельном Поле в Ячейке стоит Кот
      */
     public void destroy() {
-        destroyed = true;
-        row_x = -1;
-        col_y = -1;
-
-        for (Cell neighbor : neighbors.values()) {
-            if (neighbor != null) {
-                neighbor.neighbors.entrySet().removeIf(entry -> entry.getValue() == this);
+        close(Board.DESTROYED, true);
+        GameEvents.cellChanged(board, index, "destroy", true);
+
+        if (links != null) {
+            for (Cell neighbor : links) {
+                if (neighbor != null && neighbor.links != null) {
+                    for (int i = 0; i < neighbor.links.length; i++) {
+                        if (sameSquare(neighbor.links[i])) neighbor.links[i] = null;
+                    }
+                }
             }
+            links = null;
         }
-        neighbors.clear();
     }
 
     @Override
@@ -138,12 +239,17 @@ public class Cell {
         if (this == obj) return true;
         if (obj == null || getClass() != obj.getClass()) return false;
         Cell other = (Cell) obj;
-        return row_x == other.row_x &&
-                col_y == other.col_y &&
-                frozen == other.frozen &&
-                occupied == other.occupied &&
-                destroyed == other.destroyed &&
-                blocked == other.blocked &&
-                cat == other.cat;
-    }
-}
\ No newline at end of file
+        return X() == other.X() &&
+                Y() == other.Y() &&
+                isFrozen() == other.isFrozen() &&
+                isOccupied() == other.isOccupied() &&
+                isDestroyed() == other.isDestroyed() &&
+                isBlocked() == other.isBlocked() &&
+                getCat() == other.getCat();
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * X() + Y()) + (board.state(index) & (Board.BLOCKED | Board.FROZEN | Board.DESTROYED | Board.OCCUPIED));
+    }
+}
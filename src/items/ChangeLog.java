@@ -0,0 +1,144 @@
+package items;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Журнал изменений Ячеек Поля для передачи зрителям.<br>
+ * Журнал подписан на хранилище Поля и запоминает Ячейки, которые сменили состояние:
+ * блокировку, заморозку, уничтожение и уход или приход Кота. {@link #delta()} упаковывает
+ * накопленные изменения в кадр, где одна Ячейка занимает один-два байта.
+ * <p>
+ * Формат кадра: длина кадра (varint), тип, данные.
+ * <pre>
+ * DELTA    число изменений (varint), для каждого varint (индекс << 4 | флаги)
+ * SNAPSHOT длина (varint), ширина (varint), флаги всех Ячеек по две в байте
+ * </pre>
+ * Флаги - младшие четыре бита: заблокирована, заморожена, уничтожена, Кот.
+ * Индекс Ячейки - {@code y * длина + x}.
+ * <p>
+ * На параллельном Поле журнал защищен собственным замком, поэтому его можно читать из другого потока.
+ */
+public class ChangeLog {
+    static final byte DELTA = 1;
+    static final byte SNAPSHOT = 2;
+
+    private final Board board;
+    private final Lock lock;
+    private final int[] slots;
+    private int[] changed = new int[16];
+    private int count = 0;
+    private boolean reset = false;
+
+    /**
+     * Создает журнал и подписывает его на изменения Ячеек Поля.
+     *
+     * @param field Поле
+     */
+    ChangeLog(Field field) {
+        this.board = field.board();
+        lock = board.newLock();
+        slots = new int[board.size()];
+        board.addListener(new BoardListener() {
+            @Override
+            public void cellChanged(int index, byte oldState, byte newState) {
+                lock.lock();
+                try {
+                    if (reset || slots[index] != 0) return;
+                    if (count == changed.length) changed = Arrays.copyOf(changed, count * 2);
+                    changed[count++] = index;
+                    slots[index] = count;
+                } finally {
+                    lock.unlock();
+                }
+            }
+
+            @Override
+            public void boardReset() {
+                lock.lock();
+                try {
+                    clear();
+                    reset = true;
+                } finally {
+                    lock.unlock();
+                }
+            }
+        });
+    }
+
+    /**
+     * Есть ли изменения после последнего {@link #delta()}
+     */
+    public boolean hasChanges() {
+        lock.lock();
+        try {
+            return reset || count > 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Упаковать изменения после прошлого вызова и очистить журнал.<br>
+     * Если Поле сбрасывалось, вместо изменений возвращается полный снимок.
+     *
+     * @return Кадр или {@code null}, если изменений нет
+     */
+    public byte[] delta() {
+        lock.lock();
+        try {
+            if (reset) {
+                reset = false;
+                return snapshot();
+            }
+            if (count == 0) return null;
+
+            int payload = 1 + Varint.size(count);
+            for (int i = 0; i < count; i++) payload += Varint.size(entry(changed[i]));
+            byte[] frame = new byte[Varint.size(payload) + payload];
+            int position = Varint.write(frame, 0, payload);
+            frame[position++] = DELTA;
+            position = Varint.write(frame, position, count);
+            for (int i = 0; i < count; i++) position = Varint.write(frame, position, entry(changed[i]));
+            clear();
+            return frame;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Полный снимок Поля. Журнал не очищается.
+     */
+    public byte[] snapshot() {
+        int size = board.size();
+        int payload = 1 + Varint.size(board.getSideX()) + Varint.size(board.getSideY()) + (size + 1) / 2;
+        byte[] frame = new byte[Varint.size(payload) + payload];
+        int position = Varint.write(frame, 0, payload);
+        frame[position++] = SNAPSHOT;
+        position = Varint.write(frame, position, board.getSideX());
+        position = Varint.write(frame, position, board.getSideY());
+        for (int i = 0; i < size; i += 2) {
+            int low = board.state(i) & 0x0F;
+            int high = i + 1 < size ? board.state(i + 1) & 0x0F : 0;
+            frame[position++] = (byte) (low | high << 4);
+        }
+        return frame;
+    }
+
+    /**
+     * Является ли кадр полным снимком
+     */
+    static boolean isSnapshot(byte[] frame) {
+        int position = 0;
+        while (frame[position] < 0) position++;
+        return frame[position + 1] == SNAPSHOT;
+    }
+
+    private int entry(int index) { return index << 4 | board.state(index) & 0x0F; }
+
+    private void clear() {
+        for (int i = 0; i < count; i++) slots[changed[i]] = 0;
+        count = 0;
+    }
+}
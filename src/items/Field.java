@@ -1,15 +1,22 @@
 package items;
 
+import java.util.AbstractList;
 import java.util.List;
 
 public class Field {
     private final List<Cell> cells;
+    private final Board board;
     private final int side_x;
     private final int side_y;
-    private Cat cat;
+    private volatile Cat cat;
+    private volatile BorderDistances borderDistances;
+    private volatile Regions regions;
+    private volatile ChangeLog changeLog;
+    private volatile History history;
 
     /**
-     * Инициализирует игровое Поле с заданными ячейками и размерами.
+     * Инициализирует игровое Поле с заданными ячейками и размерами.<br>
+     * Состояние Ячеек, попадающих в границы Поля, переносится в общее хранилище Поля.
      *
      * @param cellsList Список ячеек
      * @param sideX  Длина Поля (X-координата). Требование: sideX > 3.
@@ -25,12 +32,191 @@ public class Field {
         cells = cellsList;
         side_x = sideX;
         side_y = sideY;
+        board = new Board(sideX, sideY);
+
+        for (Cell cell : cells) {
+            int index = board.index(cell.X(), cell.Y());
+            if (index < 0) continue;
+            cell.attach(board, index);
+            board.bind(index, cell);
+        }
+        for (Cell cell : cells) cell.dropGridLinks();
+    }
+
+    private Field(Board board) {
+        this.board = board;
+        side_x = board.getSideX();
+        side_y = board.getSideY();
+        cells = new AbstractList<>() {
+            @Override
+            public Cell get(int index) {
+                if (index < 0 || index >= board.size()) throw new IndexOutOfBoundsException(index);
+                return board.cell(index);
+            }
+
+            @Override
+            public int size() { return board.size(); }
+        };
+    }
+
+    /**
+     * Создает прямоугольное Поле, все Ячейки которого связаны с соседями.<br>
+     * Ячейки не создаются заранее: {@link #getCells()} и {@link #cellAt(int, int)} возвращают
+     * представления над хранилищем Поля, созданные при первом обращении.
+     *
+     * @param sideX  Длина Поля (X-координата). Требование: sideX > 3.
+     * @param sideY  Ширина Поля (Y-координата). Требование: sideY > 3.
+     *
+     * @throws IllegalArgumentException При нарушении условий sideX > 3 или sideY > 3.
+     */
+    public static Field rectangle(int sideX, int sideY) {
+        return rectangle(sideX, sideY, null);
+    }
+
+    /**
+     * Создает прямоугольное Поле с заранее заблокированными Ячейками.
+     *
+     * @param sideX     Длина Поля (X-координата). Требование: sideX > 3.
+     * @param sideY     Ширина Поля (Y-координата). Требование: sideY > 3.
+     * @param obstacles Маска препятствий по строкам: {@code obstacles[y * sideX + x]}.
+     *                  {@code null} - Поле без препятствий
+     *
+     * @throws IllegalArgumentException При нарушении условий sideX > 3 или sideY > 3,
+     *                                  или если размер маски не совпадает с размером Поля.
+     */
+    public static Field rectangle(int sideX, int sideY, boolean[] obstacles) {
+        if (sideX <= 3) throw new IllegalArgumentException("Длина поля должна быть больше трех!");
+        if (sideY <= 3) throw new IllegalArgumentException("Ширина поля должна быть больше трех!");
+        Field field = new Field(new Board(sideX, sideY));
+        field.reset(obstacles);
+        return field;
+    }
+
+    /**
+     * Создает прямоугольное Поле, которое могут менять несколько потоков без общей блокировки.<br>
+     * Флаги Ячейки меняются атомарно, ход Кота переносит связь Кота и Ячейки одним действием:
+     * другие потоки видят Кота либо в старой Ячейке, либо в новой. Ход в закрытую или
+     * занятую другим потоком Ячейку бросает {@link IllegalStateException}.
+     * <p>
+     * Общей блокировки нет: Ячейки поделены на полосы со своими замками, и изменение Ячейки
+     * вместе с оповещением подписчиков идет под замком ее полосы. Области, расстояния до края,
+     * история и журнал изменений создаются сразу и защищены каждый своим замком, их
+     * чтение не видит половину правки. Отмена и повтор хода берут замки всех полос.
+     *
+     * @param sideX     Длина Поля (X-координата). Требование: sideX > 3.
+     * @param sideY     Ширина Поля (Y-координата). Требование: sideY > 3.
+     * @param obstacles Маска препятствий по строкам: {@code obstacles[y * sideX + x]}.
+     *                  {@code null} - Поле без препятствий
+     *
+     * @throws IllegalArgumentException При нарушении условий sideX > 3 или sideY > 3,
+     *                                  или если размер маски не совпадает с размером Поля.
+     */
+    public static Field concurrent(int sideX, int sideY, boolean[] obstacles) {
+        if (sideX <= 3) throw new IllegalArgumentException("Длина поля должна быть больше трех!");
+        if (sideY <= 3) throw new IllegalArgumentException("Ширина поля должна быть больше трех!");
+        Field field = new Field(new Board(sideX, sideY, true));
+        field.reset(obstacles);
+        field.getRegions();
+        field.getBorderDistances();
+        field.getChangeLog();
+        field.getHistory();
+        return field;
+    }
+
+    /**
+     * Возвращает Поле в начальное состояние, переиспользуя его хранилище:
+     * Кот убирается, все Ячейки разблокируются и размораживаются.
+     *
+     * @param obstacles Маска препятствий по строкам: {@code obstacles[y * sideX + x]}.
+     *                  {@code null} - Поле без препятствий
+     *
+     * @throws IllegalArgumentException Если размер маски не совпадает с размером Поля.
+     */
+    public void reset(boolean[] obstacles) {
+        if (obstacles != null && obstacles.length != board.size()) throw new IllegalArgumentException("Маска препятствий не совпадает с размером поля!");
+        long start = Metrics.BOARD_RESET.start();
+        board.reset(obstacles);
+        cat = null;
+        Metrics.BOARD_RESET.stop(start);
     }
 
     public List<Cell> getCells() { return cells; }
     public int getSideX() { return side_x; }
     public int getSideY() { return side_y; }
     public Cat getCat() { return cat; }
+    public boolean isConcurrent() { return board.isConcurrent(); }
+    Board board() { return board; }
+
+    /**
+     * 64-битный хеш Зобриста позиции: состояния всех Ячеек и положения Кота.<br>
+     * Обновляется за O(1) при каждой блокировке, заморозке, уничтожении и ходе Кота.
+     */
+    public long getHash() { return board.hash(); }
+
+    /**
+     * Карта расстояний от Ячеек до края Поля.<br>
+     * Создается при первом обращении и дальше обновляется вместе с Ячейками.
+     */
+    public BorderDistances getBorderDistances() {
+        BorderDistances result = borderDistances;
+        if (result != null) return result;
+        synchronized (this) {
+            if (borderDistances == null) borderDistances = new BorderDistances(this);
+            return borderDistances;
+        }
+    }
+
+    /**
+     * Связные области проходимых Ячеек Поля.<br>
+     * Создаются при первом обращении и дальше обновляются вместе с Ячейками.
+     */
+    public Regions getRegions() {
+        Regions result = regions;
+        if (result != null) return result;
+        synchronized (this) {
+            if (regions == null) regions = new Regions(this);
+            return regions;
+        }
+    }
+
+    /**
+     * Журнал изменений Ячеек для передачи зрителям.<br>
+     * Создается при первом обращении и записывает изменения, сделанные после этого.
+     */
+    public ChangeLog getChangeLog() {
+        ChangeLog result = changeLog;
+        if (result != null) return result;
+        synchronized (this) {
+            if (changeLog == null) changeLog = new ChangeLog(this);
+            return changeLog;
+        }
+    }
+
+    /**
+     * История изменений для отмены и повтора ходов.<br>
+     * Создается при первом обращении и записывает изменения, сделанные после этого.
+     */
+    public History getHistory() {
+        History result = history;
+        if (result != null) return result;
+        synchronized (this) {
+            if (history == null) history = new History(this);
+            return history;
+        }
+    }
+
+    /**
+     * Получить Ячейку Поля по координатам
+     *
+     * @param x Координата X
+     * @param y Координата Y
+     * @return Ячейка или {@code null}, если координаты вне Поля
+     */
+    public Cell cellAt(int x, int y) {
+        int index = board.index(x, y);
+        if (index < 0) return null;
+        return board.cell(index);
+    }
 
     /**
      * Замораживает/размораживает Ячейку на Поле
@@ -48,14 +234,25 @@ public class Field {
     }
 
     /**
-     * Проверяет закрыт ли Кот
+     * Проверяет закрыт ли Кот<br>
+     * Кот закрыт, если ему некуда ходить или из его области нет выхода на край Поля.
      */
-    public boolean isCatClosed () { return !(cat.isFunctional());}
+    public boolean isCatClosed () {
+        long start = Metrics.CAT_CLOSED.start();
+        boolean closed = !cat.isFunctional() || !getRegions().canCatEscape();
+        Metrics.CAT_CLOSED.stop(start);
+        return closed;
+    }
 
     /**
      * Проверяет находится ли Кот рядом с краем Поля
      */
-    public boolean isCatOnBorder () {return cat.getCell().X() == 0 || cat.getCell().X() == side_x - 1 || cat.getCell().Y() == 0 || cat.getCell().Y() == side_y - 1;}
+    public boolean isCatOnBorder () {
+        long start = Metrics.CAT_ON_BORDER.start();
+        boolean border = cat.getCell().X() == 0 || cat.getCell().X() == side_x - 1 || cat.getCell().Y() == 0 || cat.getCell().Y() == side_y - 1;
+        Metrics.CAT_ON_BORDER.stop(start);
+        return border;
+    }
 
     /**
      * Устанавливает Кота на Поле
@@ -67,14 +264,8 @@ public class Field {
      */
     public void setCat (Cat newCat) {
         if (newCat == null) throw new NullPointerException("Нельзя ставить пустого кота!");
-        boolean setCat = false;
-        for (Cell cell : cells) {
-            if (cell.X() == newCat.getCell().X() && cell.Y() == newCat.getCell().Y()) {
-                setCat = true;
-            }
-        }
-
-        if (!setCat) throw new IllegalArgumentException("Кота невозможно заселить на поле, в которой нет его ячейки!");
+        Cell catCell = newCat.getCell();
+        if (cellAt(catCell.X(), catCell.Y()) == null) throw new IllegalArgumentException("Кота невозможно заселить на поле, в которой нет его ячейки!");
         cat = newCat;
     }
 
@@ -1,13 +1,388 @@
 package items;
 
+import java.util.Arrays;
+
+/**
+ * Партия "Поймай кота" без интерфейса.<br>
+ * Игра хранит Поле, очередность ходов и результат. Блокирующий игрок закрывает
+ * Ячейку, затем ходит Кот; после каждого хода проверяется, сбежал ли Кот или пойман.
+ * Ходы можно делать по одному ({@link #placeCat}, {@link #block}) или запустить
+ * весь цикл ходов стратегиями игроков через {@link #start()}.
+ */
 public class Game {
-    Cat CAT;
+    /**
+     * Состояние партии
+     */
+    public enum Status {
+        /** Кот еще не поставлен на Поле */
+        NOT_STARTED,
+        /** Идет игра */
+        IN_PROGRESS,
+        /** Кот добрался до края Поля */
+        CAT_ESCAPED,
+        /** Кот окружен */
+        CAT_CAUGHT;
+
+        /**
+         * Закончена ли партия
+         */
+        public boolean isFinished() { return this == CAT_ESCAPED || this == CAT_CAUGHT; }
+    }
+
+    /**
+     * Стратегия Кота
+     */
+    @FunctionalInterface
+    public interface CatPlayer {
+        /**
+         * Выбрать ход Кота
+         *
+         * @param field Поле с Котом
+         * @return Направление хода или {@code null}, если Коту некуда идти
+         */
+        Side move(Field field);
+    }
+
+    /**
+     * Стратегия блокирующего игрока
+     */
+    @FunctionalInterface
+    public interface BlockerPlayer {
+        /**
+         * Выбрать Ячейку для блокировки
+         *
+         * @param field Поле с Котом
+         * @return Открытая свободная Ячейка Поля
+         */
+        Cell block(Field field);
+    }
+
+    /**
+     * Наблюдатель за ходом партии
+     */
+    public interface Listener {
+        /**
+         * Кот поставлен на Поле; остальные Ячейки в начальном состоянии
+         */
+        default void catPlaced(Game game) {}
+
+        /**
+         * Сделан ход: заблокирована Ячейка, затем Кот ответил ходом
+         *
+         * @param catMove Ход Кота или {@code null}, если Кот не ходил
+         */
+        default void turnPlayed(Game game, int blockX, int blockY, Side catMove) {}
+
+        /**
+         * Партия закончилась
+         */
+        default void gameFinished(Game game) {}
+
+        /**
+         * Поле сброшено для новой партии
+         */
+        default void gameReset(Game game) {}
+
+        /**
+         * Последний ход или постановка Кота отменены
+         */
+        default void turnUndone(Game game) {}
+
+        /**
+         * Отмененный ход или постановка Кота повторены
+         */
+        default void turnRedone(Game game) {}
+    }
+
+    /**
+     * Кот идет к ближайшему краю Поля по карте расстояний.
+     * Соседей, заданных через {@link Cell#setNeighbor}, карта не учитывает
+     */
+    public static final CatPlayer SHORTEST_PATH = field -> field.getBorderDistances().nextMove();
+
+    /**
+     * Блокирующий игрок закрывает Ячейку, в которую Кот пошел бы по кратчайшему пути
+     */
+    public static final BlockerPlayer BLOCK_NEXT_STEP = field -> {
+        Side side = field.getBorderDistances().nextMove();
+        return side == null ? null : field.getCat().getCell().getNeighbor(side);
+    };
+
+    private final Field field;
+    private final History history;
+    private final CatPlayer catPlayer;
+    private BlockerPlayer blockerPlayer;
+    private Status status = Status.NOT_STARTED;
+    private int turns = 0;
+    private Listener[] listeners = new Listener[0];
+
+    /**
+     * Создает партию без отмены ходов, в которой Кот ходит по кратчайшему пути, а блокирует человек.
+     *
+     * @param field Поле
+     * @throws NullPointerException Если Поле пустое
+     */
+    public Game(Field field) { this(field, false); }
+
+    /**
+     * Создает партию, в которой Кот ходит по кратчайшему пути, а блокирует человек.
+     *
+     * @param field    Поле
+     * @param undoable Записывать ли историю для {@link #undo()} и {@link #redo()}
+     * @throws NullPointerException Если Поле пустое
+     */
+    public Game(Field field, boolean undoable) { this(field, SHORTEST_PATH, null, undoable); }
+
+    /**
+     * Создает партию без отмены ходов.
+     *
+     * @param field         Поле
+     * @param catPlayer     Стратегия Кота
+     * @param blockerPlayer Стратегия блокирующего игрока; {@code null}, если ходы делаются через {@link #block}
+     * @throws NullPointerException Если Поле или стратегия Кота пустые
+     */
+    public Game(Field field, CatPlayer catPlayer, BlockerPlayer blockerPlayer) {
+        this(field, catPlayer, blockerPlayer, false);
+    }
+
+    /**
+     * Создает партию.<br>
+     * История подписывается на каждое изменение Ячеек, поэтому ее стоит включать только там,
+     * где ходы отменяют, например в интерфейсе; партии без интерфейса ее не ведут.
+     *
+     * @param field         Поле
+     * @param catPlayer     Стратегия Кота
+     * @param blockerPlayer Стратегия блокирующего игрока; {@code null}, если ходы делаются через {@link #block}
+     * @param undoable      Записывать ли историю для {@link #undo()} и {@link #redo()}
+     * @throws NullPointerException Если Поле или стратегия Кота пустые
+     */
+    public Game(Field field, CatPlayer catPlayer, BlockerPlayer blockerPlayer, boolean undoable) {
+        if (field == null) throw new NullPointerException("Игра невозможна без поля!");
+        if (catPlayer == null) throw new NullPointerException("Игра невозможна без стратегии кота!");
+        this.field = field;
+        this.history = undoable ? field.getHistory() : null;
+        this.catPlayer = catPlayer;
+        this.blockerPlayer = blockerPlayer;
+        if (field.getCat() != null) status = check();
+    }
+
+    public Field getField() { return field; }
+    public Status getStatus() { return status; }
+
+    /**
+     * Число сделанных ходов блокирующего игрока
+     */
+    public int getTurns() { return turns; }
+
+    /**
+     * Установить стратегию блокирующего игрока
+     */
+    public void setBlockerPlayer(BlockerPlayer blockerPlayer) { this.blockerPlayer = blockerPlayer; }
+
+    /**
+     * Подписать наблюдателя на ход партии
+     */
+    public void addListener(Listener listener) {
+        if (listener == null) throw new NullPointerException("Наблюдатель не может быть null!");
+        listeners = Arrays.copyOf(listeners, listeners.length + 1);
+        listeners[listeners.length - 1] = listener;
+    }
+
+    /**
+     * Поставить Кота на Поле и начать партию
+     *
+     * @param x Координата X
+     * @param y Координата Y
+     * @return Состояние партии после хода
+     * @throws IllegalStateException    Если Кот уже стоит на Поле
+     * @throws IllegalArgumentException Если Ячейка вне Поля или закрыта
+     */
+    public Status placeCat(int x, int y) {
+        if (status != Status.NOT_STARTED) throw new IllegalStateException("Кот уже на поле!");
+        if (!canPlaceCat(x, y)) throw new IllegalArgumentException("Кота нельзя поставить в эту ячейку!");
+        field.setCat(new Cat(field.cellAt(x, y)));
+        if (history != null) history.commit();
+        status = check();
+        for (Listener listener : listeners) listener.catPlaced(this);
+        if (status.isFinished()) for (Listener listener : listeners) listener.gameFinished(this);
+        return status;
+    }
+
+    /**
+     * Можно ли поставить Кота в Ячейку
+     *
+     * @param x Координата X
+     * @param y Координата Y
+     */
+    public boolean canPlaceCat(int x, int y) {
+        if (status != Status.NOT_STARTED) return false;
+        Cell cell = field.cellAt(x, y);
+        return cell != null && cell.board().isOpen(cell.index());
+    }
+
+    /**
+     * Можно ли заблокировать Ячейку следующим ходом
+     *
+     * @param x Координата X
+     * @param y Координата Y
+     */
+    public boolean canBlock(int x, int y) {
+        if (status != Status.IN_PROGRESS) return false;
+        Cell cell = field.cellAt(x, y);
+        return cell != null && cell.board().isOpen(cell.index()) && !cell.isOccupied();
+    }
+
+    /**
+     * Ход блокирующего игрока и ответ Кота
+     *
+     * @param x Координата X
+     * @param y Координата Y
+     * @return Состояние партии после хода
+     * @throws IllegalStateException    Если партия не идет
+     * @throws IllegalArgumentException Если Ячейку нельзя заблокировать
+     */
+    public Status block(int x, int y) {
+        if (status != Status.IN_PROGRESS) throw new IllegalStateException("Партия не идет!");
+        if (!canBlock(x, y) || !turn(field.cellAt(x, y))) throw new IllegalArgumentException("Эту ячейку нельзя заблокировать!");
+        return status;
+    }
+
+    /**
+     * Доиграть партию стратегиями игроков
+     *
+     * @return Результат партии
+     * @throws IllegalStateException Если Кот не стоит на Поле, не задана стратегия блокирующего игрока
+     *                               или она выбрала недопустимую Ячейку
+     */
+    public Status start() {
+        if (status == Status.NOT_STARTED) throw new IllegalStateException("Кот еще не на поле!");
+        if (blockerPlayer == null && !status.isFinished()) {
+            throw new IllegalStateException("Не задана стратегия блокирующего игрока!");
+        }
+        while (status == Status.IN_PROGRESS) {
+            long start = Metrics.BLOCKER_DECISION.start();
+            Cell cell = blockerPlayer.block(field);
+            Metrics.BLOCKER_DECISION.stop(start);
+            if (cell == null || cell.board() != field.board() || !turn(cell)) {
+                throw new IllegalStateException("Блокирующий игрок выбрал недопустимую ячейку!");
+            }
+        }
+        return status;
+    }
+
+    /**
+     * Начать новую партию на том же Поле
+     *
+     * @param obstacles Маска препятствий или {@code null}
+     * @throws IllegalArgumentException Если размер маски не совпадает с размером Поля
+     */
+    public void reset(boolean[] obstacles) {
+        field.reset(obstacles);
+        status = Status.NOT_STARTED;
+        turns = 0;
+        for (Listener listener : listeners) listener.gameReset(this);
+    }
+
+    /**
+     * Можно ли отменить ход; {@code false}, если партия ведется без истории
+     */
+    public boolean canUndo() { return history != null && history.canUndo(); }
+
+    /**
+     * Можно ли повторить отмененный ход; {@code false}, если партия ведется без истории
+     */
+    public boolean canRedo() { return history != null && history.canRedo(); }
+
+    /**
+     * Отменить последний ход вместе с ответом Кота, а если ходов не было - постановку Кота
+     *
+     * @return {@code false}, если отменять нечего или партия ведется без истории
+     */
+    public boolean undo() {
+        if (history == null || !history.undo()) return false;
+        if (field.getCat() == null) {
+            status = Status.NOT_STARTED;
+            turns = 0;
+        } else {
+            turns--;
+            status = check();
+        }
+        for (Listener listener : listeners) listener.turnUndone(this);
+        return true;
+    }
+
+    /**
+     * Повторить последний отмененный ход
+     *
+     * @return {@code false}, если повторять нечего или партия ведется без истории
+     */
+    public boolean redo() {
+        boolean placed = field.getCat() != null;
+        if (history == null || !history.redo()) return false;
+        if (placed) turns++;
+        status = check();
+        for (Listener listener : listeners) listener.turnRedone(this);
+        return true;
+    }
+
+    /**
+     * Заблокировать Ячейку и сыграть ответ Кота
+     *
+     * @return {@code false}, если Ячейка закрыта или в ней Кот; ход тогда не сделан.
+     *         На параллельном Поле проверка и блокировка атомарны
+     */
+    private boolean turn(Cell cell) {
+        int x = cell.X(), y = cell.Y();
+        if (!cell.tryBlock()) return false;
+        long start = Metrics.TURN.start();
+        // Событие пишется только для сделанного хода, поэтому начинается после блокировки
+        GameEvents.Turn event = GameEvents.TURN.isEnabled() ? new GameEvents.Turn() : null;
+        if (event != null) event.begin();
+        turns++;
+        status = check();
+
+        Side move = null;
+        if (status == Status.IN_PROGRESS) {
+            long decision = Metrics.CAT_DECISION.start();
+            move = catPlayer.move(field);
+            Metrics.CAT_DECISION.stop(decision);
+            if (move != null) field.getCat().move(move);
+            status = check();
+        }
+        if (history != null) history.commit();
+        Metrics.TURN.stop(start);
+        if (event != null) {
+            Cell catCell = field.getCat().getCell();
+            event.sideX = field.getSideX();
+            event.sideY = field.getSideY();
+            event.turn = turns;
+            event.blockX = x;
+            event.blockY = y;
+            event.catX = catCell.X();
+            event.catY = catCell.Y();
+            event.status = status.name();
+            event.commit();
+        }
+        for (Listener listener : listeners) listener.turnPlayed(this, x, y, move);
+        if (status.isFinished()) for (Listener listener : listeners) listener.gameFinished(this);
+        return true;
+    }
 
-    public Game(Cat _cat) {
-        this.CAT = _cat;
+    private Status check() {
+        if (!GameEvents.STATUS_CHECK.isEnabled()) return detect();
+        GameEvents.StatusCheck event = new GameEvents.StatusCheck();
+        event.begin();
+        Status result = detect();
+        event.sideX = field.getSideX();
+        event.sideY = field.getSideY();
+        event.status = result.name();
+        event.commit();
+        return result;
     }
 
-    public void start() {
-        // TODO алгоритм старта игры
+    private Status detect() {
+        if (field.isCatOnBorder()) return Status.CAT_ESCAPED;
+        if (field.isCatClosed()) return Status.CAT_CAUGHT;
+        return Status.IN_PROGRESS;
     }
 }
@@ -0,0 +1,146 @@
+package items;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * События Java Flight Recorder для операций игры.<br>
+ * Все события в категории "Cat Game" и несут размер Поля. События создаются только
+ * во время записи: проверка {@link EventType#isEnabled()} перед созданием сохраняет ход
+ * без выделения памяти, когда JFR не пишет.
+ */
+final class GameEvents {
+    private static final String CATEGORY = "Cat Game";
+
+    private GameEvents() {}
+
+    @Name("items.Turn")
+    @Label("Ход")
+    @Category(CATEGORY)
+    @Description("Ход блокирующего игрока и ответ Кота: от удавшейся блокировки до проверки итога")
+    @StackTrace(false)
+    static final class Turn extends Event {
+        @Label("Длина поля") int sideX;
+        @Label("Ширина поля") int sideY;
+        @Label("Номер хода") int turn;
+        @Label("X блокировки") int blockX;
+        @Label("Y блокировки") int blockY;
+        @Label("X кота") int catX;
+        @Label("Y кота") int catY;
+        @Label("Состояние партии") String status;
+    }
+
+    @Name("items.CatMove")
+    @Label("Ход кота")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class CatMove extends Event {
+        @Label("Длина поля") int sideX;
+        @Label("Ширина поля") int sideY;
+        @Label("Направление") String side;
+        @Label("X до хода") int fromX;
+        @Label("Y до хода") int fromY;
+        @Label("X после хода") int toX;
+        @Label("Y после хода") int toY;
+    }
+
+    @Name("items.CellChange")
+    @Label("Изменение ячейки")
+    @Category(CATEGORY)
+    @Description("Блокировка, заморозка или уничтожение ячейки")
+    @StackTrace(false)
+    static final class CellChange extends Event {
+        @Label("Длина поля") int sideX;
+        @Label("Ширина поля") int sideY;
+        @Label("Действие") String action;
+        @Label("Значение") boolean value;
+        @Label("X") int x;
+        @Label("Y") int y;
+    }
+
+    @Name("items.StatusCheck")
+    @Label("Проверка итога")
+    @Category(CATEGORY)
+    @Description("Проверка, сбежал ли кот или пойман")
+    @StackTrace(false)
+    static final class StatusCheck extends Event {
+        @Label("Длина поля") int sideX;
+        @Label("Ширина поля") int sideY;
+        @Label("Состояние партии") String status;
+    }
+
+    @Name("items.SearchIteration")
+    @Label("Итерация поиска")
+    @Category(CATEGORY)
+    @Description("Одна глубина итеративного углубления поиска хода")
+    @StackTrace(false)
+    static final class SearchIteration extends Event {
+        @Label("Длина поля") int sideX;
+        @Label("Ширина поля") int sideY;
+        @Label("Глубина") int depth;
+        @Label("Позиций с начала поиска") long nodes;
+        @Label("Оценка") int score;
+        @Label("X лучшего хода") int moveX;
+        @Label("Y лучшего хода") int moveY;
+        @Label("Прервана по времени") boolean aborted;
+        @Label("Потоков") int threads;
+    }
+
+    static final EventType TURN = EventType.getEventType(Turn.class);
+    static final EventType CAT_MOVE = EventType.getEventType(CatMove.class);
+    static final EventType CELL_CHANGE = EventType.getEventType(CellChange.class);
+    static final EventType STATUS_CHECK = EventType.getEventType(StatusCheck.class);
+    static final EventType SEARCH_ITERATION = EventType.getEventType(SearchIteration.class);
+
+    /**
+     * Записать изменение Ячейки, если JFR пишет это событие
+     */
+    static void cellChanged(Board board, int index, String action, boolean value) {
+        if (!CELL_CHANGE.isEnabled()) return;
+        CellChange event = new CellChange();
+        event.sideX = board.getSideX();
+        event.sideY = board.getSideY();
+        event.action = action;
+        event.value = value;
+        event.x = board.x(index);
+        event.y = board.y(index);
+        event.commit();
+    }
+
+    /**
+     * Начать итерацию поиска
+     *
+     * @return Событие или {@code null}, если JFR его не пишет
+     */
+    static SearchIteration searchStarted(int sideX, int sideY, int depth, int threads) {
+        if (!SEARCH_ITERATION.isEnabled()) return null;
+        SearchIteration event = new SearchIteration();
+        event.sideX = sideX;
+        event.sideY = sideY;
+        event.depth = depth;
+        event.threads = threads;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Закончить итерацию поиска
+     *
+     * @param event Событие из {@link #searchStarted} или {@code null}
+     * @param move  Индекс лучшей Ячейки или {@code -1}
+     */
+    static void searchFinished(SearchIteration event, long nodes, int score, int move, boolean aborted) {
+        if (event == null) return;
+        event.nodes = nodes;
+        event.score = score;
+        event.moveX = move < 0 ? -1 : move % event.sideX;
+        event.moveY = move < 0 ? -1 : move / event.sideX;
+        event.aborted = aborted;
+        event.commit();
+    }
+}
@@ -0,0 +1,203 @@
+package items;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * TCP-сервер игры.<br>
+ * Каждое соединение - отдельная партия со своим Полем, которую обслуживает свой
+ * виртуальный поток. Команды и ответы - строки в UTF-8:
+ * <pre>
+ * place x y  -> OK статус x y     поставить Кота
+ * block x y  -> OK статус x y     заблокировать Ячейку; в ответе новая позиция Кота
+ * state      -> STATE статус ходы x y
+ * field      -> FIELD длина ширина строка-поля   ('.' свободна, '#' заблокирована, '*' заморожена, 'C' Кот)
+ * reset      -> OK NOT_STARTED
+ * quit       -> BYE
+ * </pre>
+ * При ошибке сервер отвечает {@code ERROR сообщение} и продолжает партию.
+ */
+public class GameServer implements AutoCloseable {
+    private final int side_x;
+    private final int side_y;
+    private final ServerSocket socket;
+    private final ExecutorService sessions = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicInteger active = new AtomicInteger();
+    private final Thread acceptor;
+
+    /**
+     * Запускает сервер на локальном адресе.
+     *
+     * @param port  Порт; {@code 0} - любой свободный
+     * @param sideX Длина Поля партий. Требование: sideX > 3.
+     * @param sideY Ширина Поля партий. Требование: sideY > 3.
+     *
+     * @throws IllegalArgumentException При нарушении условий на размеры Поля
+     * @throws UncheckedIOException     Если порт занят
+     */
+    public GameServer(int port, int sideX, int sideY) {
+        if (sideX <= 3) throw new IllegalArgumentException("Длина поля должна быть больше трех!");
+        if (sideY <= 3) throw new IllegalArgumentException("Ширина поля должна быть больше трех!");
+        this.side_x = sideX;
+        this.side_y = sideY;
+        try {
+            socket = new ServerSocket();
+            socket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 4096);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось запустить сервер!", e);
+        }
+        acceptor = Thread.ofPlatform().name("game-server-accept").daemon().start(this::accept);
+    }
+
+    public int getPort() { return socket.getLocalPort(); }
+
+    /**
+     * Число открытых партий
+     */
+    public int getSessions() { return active.get(); }
+
+    /**
+     * Остановить сервер и закрыть все партии
+     */
+    @Override
+    public void close() {
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+        }
+        sessions.shutdownNow();
+    }
+
+    private void accept() {
+        while (!socket.isClosed()) {
+            try {
+                Socket client = socket.accept();
+                client.setTcpNoDelay(true);
+                sessions.execute(() -> serve(client));
+            } catch (IOException e) {
+                if (socket.isClosed()) return;
+            }
+        }
+    }
+
+    /**
+     * Партия одного соединения
+     */
+    private void serve(Socket client) {
+        active.incrementAndGet();
+        try (client;
+             BufferedReader in = new BufferedReader(new InputStreamReader(client.getInputStream(), StandardCharsets.UTF_8));
+             BufferedWriter out = new BufferedWriter(new OutputStreamWriter(client.getOutputStream(), StandardCharsets.UTF_8))) {
+            Game game = new Game(Field.rectangle(side_x, side_y));
+            StringBuilder reply = new StringBuilder();
+            String line;
+            while ((line = in.readLine()) != null) {
+                reply.setLength(0);
+                boolean quit = handle(game, line, reply);
+                out.append(reply).append('\n');
+                out.flush();
+                if (quit) return;
+            }
+        } catch (SocketException ignored) {
+            // Клиент оборвал соединение
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            active.decrementAndGet();
+        }
+    }
+
+    /**
+     * Выполнить команду партии
+     *
+     * @return {@code true}, если клиент завершает партию
+     */
+    static boolean handle(Game game, String line, StringBuilder reply) {
+        String[] words = line.trim().split("\\s+");
+        try {
+            switch (words[0].toLowerCase()) {
+                case "place" -> {
+                    game.placeCat(coordinate(words, 1), coordinate(words, 2));
+                    status(reply.append("OK "), game);
+                }
+                case "block" -> {
+                    game.block(coordinate(words, 1), coordinate(words, 2));
+                    status(reply.append("OK "), game);
+                }
+                case "state" -> {
+                    reply.append("STATE ").append(game.getStatus()).append(' ').append(game.getTurns());
+                    cat(reply, game.getField());
+                }
+                case "field" -> field(reply.append("FIELD "), game.getField());
+                case "reset" -> {
+                    game.reset(null);
+                    reply.append("OK ").append(game.getStatus());
+                }
+                case "quit" -> {
+                    reply.append("BYE");
+                    return true;
+                }
+                default -> reply.append("ERROR Неизвестная команда!");
+            }
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            reply.setLength(0);
+            reply.append("ERROR ").append(e.getMessage());
+        }
+        return false;
+    }
+
+    private static int coordinate(String[] words, int position) {
+        if (words.length <= position) throw new IllegalArgumentException("Не указаны координаты!");
+        try {
+            return Integer.parseInt(words[position]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Неверные координаты!");
+        }
+    }
+
+    private static void status(StringBuilder reply, Game game) {
+        reply.append(game.getStatus());
+        cat(reply, game.getField());
+    }
+
+    private static void cat(StringBuilder reply, Field field) {
+        Cat cat = field.getCat();
+        if (cat == null) reply.append(" -1 -1");
+        else reply.append(' ').append(cat.getCell().X()).append(' ').append(cat.getCell().Y());
+    }
+
+    private static void field(StringBuilder reply, Field field) {
+        Board board = field.board();
+        reply.append(board.getSideX()).append(' ').append(board.getSideY()).append(' ');
+        for (int i = 0; i < board.size(); i++) {
+            if (board.has(i, Board.OCCUPIED)) reply.append('C');
+            else if (board.has(i, Board.BLOCKED)) reply.append('#');
+            else if (board.has(i, Board.FROZEN)) reply.append('*');
+            else reply.append('.');
+        }
+    }
+
+    /**
+     * Запуск сервера: {@code [порт] [сторона поля]}
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 7777;
+        int side = args.length > 1 ? Integer.parseInt(args[1]) : 11;
+        GameServer server = new GameServer(port, side, side);
+        System.out.println("Сервер запущен на порту " + server.getPort());
+        server.acceptor.join();
+    }
+}
@@ -0,0 +1,229 @@
+package items;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * История изменений Поля для отмены и повтора ходов.<br>
+ * История подписана на хранилище Поля и записывает каждое изменение Ячейки одним числом:
+ * индекс, флаги до и флаги после. Для ухода и прихода Кота запоминается сам Кот.
+ * Изменения между вызовами {@link #commit()} составляют один шаг; отмена шага
+ * возвращает его изменения в обратном порядке, поэтому стоит столько же, сколько сам шаг,
+ * и не зависит от размера Поля.
+ * <p>
+ * Новое изменение после отмены стирает отмененные шаги. Сброс Поля очищает историю.
+ * Связи Ячеек, заданные вручную и разорванные уничтожением, при отмене не восстанавливаются.
+ * <p>
+ * На параллельном Поле история защищена собственным замком, а отмена и повтор берут еще
+ * замки всех полос хранилища, чтобы чужие изменения не попали в отмененный шаг и не
+ * потерялись, пока история воспроизводит свои.
+ */
+public class History {
+    private final Field field;
+    private final Board board;
+    private final Lock lock;
+
+    // Изменения: индекс << 16 | флаги до << 8 | флаги после; для изменений с Котом - сам Кот
+    private long[] changes = new long[64];
+    private Cat[] cats = new Cat[64];
+    private int size = 0;
+
+    // Конец каждого шага в массиве изменений
+    private int[] steps = new int[16];
+    private int applied = 0;
+    private int recorded = 0;
+
+    private boolean replaying = false;
+
+    /**
+     * Создает историю и подписывает ее на изменения Ячеек Поля.
+     *
+     * @param field Поле
+     */
+    History(Field field) {
+        this.field = field;
+        this.board = field.board();
+        lock = board.newLock();
+        board.addListener(new BoardListener() {
+            @Override
+            public void cellChanged(int index, byte oldState, byte newState) {
+                lock.lock();
+                try {
+                    if (!replaying) record(index, oldState, newState);
+                } finally {
+                    lock.unlock();
+                }
+            }
+
+            @Override
+            public void catChanged(int index, Cat cat) {
+                lock.lock();
+                try {
+                    if (replaying) return;
+                    // Между изменением флага и Котом могут попасть изменения других Ячеек
+                    for (int i = size - 1; i >= end(applied); i--) {
+                        if (changes[i] >>> 16 != index) continue;
+                        cats[i] = cat;
+                        return;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+
+            @Override
+            public void boardReset() { clear(); }
+        });
+    }
+
+    private void record(int index, byte oldState, byte newState) {
+        if (recorded > applied) {
+            // Отмененные шаги больше не повторить
+            Arrays.fill(cats, size, end(recorded), null);
+            recorded = applied;
+        }
+        if (size == changes.length) {
+            changes = Arrays.copyOf(changes, size * 2);
+            cats = Arrays.copyOf(cats, size * 2);
+        }
+        changes[size] = (long) index << 16 | (oldState & 0xFF) << 8 | newState & 0xFF;
+        size++;
+    }
+
+    /**
+     * Закончить шаг: изменения после прошлого шага отменяются вместе
+     */
+    public void commit() {
+        lock.lock();
+        try {
+            if (size == end(applied)) return;
+            if (applied == steps.length) steps = Arrays.copyOf(steps, applied * 2);
+            steps[applied++] = size;
+            recorded = applied;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean canUndo() {
+        lock.lock();
+        try {
+            return applied > 0 || size > end(applied);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean canRedo() {
+        lock.lock();
+        try {
+            return recorded > applied;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Отменить последний шаг. Незаконченный шаг сначала заканчивается.
+     *
+     * @return {@code false}, если отменять нечего
+     */
+    public boolean undo() {
+        board.lockAll();
+        try {
+            lock.lock();
+            try {
+                commit();
+                if (applied == 0) return false;
+                int from = end(applied - 1);
+                replaying = true;
+                try {
+                    for (int i = steps[applied - 1] - 1; i >= from; i--) apply(i, false);
+                } finally {
+                    replaying = false;
+                }
+                applied--;
+                size = from;
+                syncCat();
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            board.unlockAll();
+        }
+    }
+
+    /**
+     * Повторить последний отмененный шаг
+     *
+     * @return {@code false}, если повторять нечего
+     */
+    public boolean redo() {
+        board.lockAll();
+        try {
+            lock.lock();
+            try {
+                if (!canRedo()) return false;
+                replaying = true;
+                try {
+                    for (int i = size; i < steps[applied]; i++) apply(i, true);
+                } finally {
+                    replaying = false;
+                }
+                size = steps[applied++];
+                syncCat();
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            board.unlockAll();
+        }
+    }
+
+    /**
+     * Забыть все шаги
+     */
+    public void clear() {
+        lock.lock();
+        try {
+            Arrays.fill(cats, 0, Math.max(size, end(recorded)), null);
+            size = 0;
+            applied = recorded = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int end(int step) { return step == 0 ? 0 : steps[step - 1]; }
+
+    /**
+     * Вернуть или повторить одно изменение
+     */
+    private void apply(int i, boolean forward) {
+        long change = changes[i];
+        int index = (int) (change >>> 16);
+        byte target = (byte) (forward ? change : change >>> 8);
+        byte current = board.state(index);
+        board.setState(index, (byte) (target & ~Board.OCCUPIED | current & Board.OCCUPIED));
+
+        boolean catBefore = (current & Board.OCCUPIED) != 0, catAfter = (target & Board.OCCUPIED) != 0;
+        if (catBefore == catAfter) return;
+        Cell cell = field.cellAt(board.x(index), board.y(index));
+        if (catAfter) {
+            cell.setCat(cats[i]);
+            if (field.getCat() == null) field.setCat(cats[i]);
+        } else {
+            cell.unsetCat();
+        }
+    }
+
+    /**
+     * Убрать Кота с Поля, если его постановка отменена
+     */
+    private void syncCat() {
+        Cat cat = field.getCat();
+        if (cat != null && cat.getCell() == null) field.unsetCat();
+    }
+}
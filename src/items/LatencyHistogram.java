@@ -0,0 +1,150 @@
+package items;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Счетчик вызовов и гистограмма длительностей одного участка кода.<br>
+ * Длительности в наносекундах раскладываются по логарифмическим корзинам, как в HdrHistogram:
+ * на каждую степень двойки приходится {@value #SUB} корзин, поэтому ошибка квантиля не больше
+ * 1/{@value #SUB} от значения при любом масштабе. Запись не блокирует и не создает объектов.
+ * <p>
+ * Считается каждый завершенный вызов, а длительность замеряется у случайной выборки, в среднем
+ * у каждого {@value Metrics#SAMPLE}-го вызова. Вызов, прерванный исключением до {@link #stop(long)},
+ * не считается. Незамеренный вызов стоит двух чтений флага, прибавления к {@link LongAdder}
+ * и случайного числа потока, без {@link System#nanoTime()}.
+ * Пока сбор выключен в {@link Metrics}, {@link #start()} и {@link #stop(long)} лишь читают флаг.
+ */
+public final class LatencyHistogram implements LatencyHistogramMXBean {
+    private static final int SUB_BITS = 6;
+    private static final int SUB = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS) * SUB;
+
+    private final String name;
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    LatencyHistogram(String name) { this.name = name; }
+
+    @Override
+    public String getName() { return name; }
+
+    /**
+     * Начать замер вызова
+     *
+     * @return Метка для {@link #stop(long)}; {@code 0}, если вызов не замеряется
+     */
+    public long start() {
+        if (!Metrics.isEnabled()) return 0;
+        if ((ThreadLocalRandom.current().nextInt() & Metrics.SAMPLE - 1) != 0) return 0;
+        return System.nanoTime();
+    }
+
+    /**
+     * Закончить замер, начатый {@link #start()}, и засчитать вызов
+     */
+    public void stop(long start) {
+        if (!Metrics.isEnabled()) return;
+        calls.increment();
+        if (start != 0) record(System.nanoTime() - start);
+    }
+
+    /**
+     * Записать длительность
+     *
+     * @param nanos Длительность в наносекундах; отрицательная считается нулем
+     */
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        counts.incrementAndGet(bucket(nanos));
+        sum.add(nanos);
+        long current;
+        while (nanos > (current = max.get()) && !max.compareAndSet(current, nanos)) Thread.onSpinWait();
+    }
+
+    private static int bucket(long value) {
+        if (value < 2 * SUB) return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        return (shift << SUB_BITS) + (int) (value >>> shift);
+    }
+
+    /**
+     * Середина диапазона значений корзины
+     */
+    private static long value(int bucket) {
+        if (bucket < 2 * SUB) return bucket;
+        int shift = (bucket >>> SUB_BITS) - 1;
+        long lower = (long) (bucket & SUB - 1 | SUB) << shift;
+        return lower + (1L << shift >>> 1);
+    }
+
+    /**
+     * Число всех завершенных вызовов, включая незамеренные
+     */
+    @Override
+    public long getCalls() { return calls.sum(); }
+
+    /**
+     * Число замеренных вызовов
+     */
+    @Override
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) count += counts.get(i);
+        return count;
+    }
+
+    @Override
+    public double getMean() {
+        long count = getCount();
+        return count == 0 ? 0 : (double) sum.sum() / count;
+    }
+
+    @Override
+    public long getMax() { return max.get(); }
+
+    /**
+     * Значение, которого не превышает заданная доля замеров
+     *
+     * @param percentile Доля в процентах, от 0 до 100
+     * @return Длительность в наносекундах или {@code 0}, если замеров нет
+     */
+    public long getValueAtPercentile(double percentile) {
+        long count = getCount();
+        if (count == 0) return 0;
+        long target = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= target) return Math.min(value(i), getMax());
+        }
+        return getMax();
+    }
+
+    @Override
+    public long getP50() { return getValueAtPercentile(50); }
+
+    @Override
+    public long getP90() { return getValueAtPercentile(90); }
+
+    @Override
+    public long getP99() { return getValueAtPercentile(99); }
+
+    @Override
+    public long getP999() { return getValueAtPercentile(99.9); }
+
+    /**
+     * Обнулить счетчики
+     */
+    @Override
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) counts.set(i, 0);
+        calls.reset();
+        sum.reset();
+        max.set(0);
+    }
+}
@@ -0,0 +1,17 @@
+package items;
+
+/**
+ * Гистограмма длительностей в JMX. Длительности в наносекундах.
+ */
+public interface LatencyHistogramMXBean {
+    String getName();
+    long getCalls();
+    long getCount();
+    double getMean();
+    long getMax();
+    long getP50();
+    long getP90();
+    long getP99();
+    long getP999();
+    void reset();
+}
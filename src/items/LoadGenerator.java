@@ -0,0 +1,203 @@
+package items;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Нагрузочный клиент {@link GameServer}.<br>
+ * Открывает заданное число соединений на виртуальных потоках, в каждом играет партии
+ * (Кот в центре, блокируются Ячейки рядом с Котом) и замеряет время ответа на каждую команду.
+ */
+public class LoadGenerator {
+    private static final int[][] AROUND = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
+
+    private final String host;
+    private final int port;
+
+    /**
+     * Итог нагрузки
+     */
+    public static final class Report {
+        private final int clients;
+        private final long games;
+        private final long requests;
+        private final long nanos;
+        private final long[] latencies;
+
+        Report(int clients, long games, long requests, long nanos, long[] latencies) {
+            this.clients = clients;
+            this.games = games;
+            this.requests = requests;
+            this.nanos = nanos;
+            this.latencies = latencies;
+        }
+
+        public int getClients() { return clients; }
+        public long getGames() { return games; }
+        public long getRequests() { return requests; }
+
+        /**
+         * Запросов в секунду по всем соединениям
+         */
+        public double getRequestsPerSecond() { return nanos == 0 ? 0 : requests * 1e9 / nanos; }
+
+        /**
+         * Время ответа на заданном перцентиле
+         *
+         * @param percentile Перцентиль от 0 до 100
+         * @return Время в микросекундах
+         */
+        public double getLatencyMicros(double percentile) {
+            if (latencies.length == 0) return 0;
+            int position = (int) Math.min(latencies.length - 1, Math.ceil(percentile / 100 * latencies.length) - 1);
+            return latencies[Math.max(position, 0)] / 1e3;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Соединений: %d, партий: %d, запросов/с: %.0f, p50: %.1f мкс, p99: %.1f мкс, max: %.1f мкс",
+                    clients, games, getRequestsPerSecond(), getLatencyMicros(50), getLatencyMicros(99), getLatencyMicros(100));
+        }
+    }
+
+    public LoadGenerator(String host, int port) {
+        if (host == null) throw new NullPointerException("Не указан адрес сервера!");
+        this.host = host;
+        this.port = port;
+    }
+
+    /**
+     * Сыграть партии во всех соединениях одновременно
+     *
+     * @param clients Число соединений
+     * @param games   Число партий в каждом соединении
+     *
+     * @throws IllegalArgumentException Если соединений меньше одного или число партий отрицательное
+     * @throws UncheckedIOException     При ошибке соединения
+     */
+    public Report run(int clients, int games) {
+        if (clients < 1) throw new IllegalArgumentException("Число соединений должно быть больше нуля!");
+        if (games < 0) throw new IllegalArgumentException("Число партий не может быть отрицательным!");
+
+        long start = System.nanoTime();
+        List<long[]> samples = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<long[]>> results = new ArrayList<>();
+            for (int i = 0; i < clients; i++) {
+                long seed = i;
+                results.add(executor.submit(() -> play(games, seed)));
+            }
+            for (Future<long[]> result : results) samples.add(result.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Нагрузка прервана!", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException io) throw io;
+            throw new IllegalStateException("Ошибка клиента!", e.getCause());
+        }
+        long nanos = System.nanoTime() - start;
+
+        long[] latencies = new long[samples.stream().mapToInt(s -> s.length).sum()];
+        int position = 0;
+        for (long[] sample : samples) {
+            System.arraycopy(sample, 0, latencies, position, sample.length);
+            position += sample.length;
+        }
+        Arrays.sort(latencies);
+        return new Report(clients, (long) clients * games, latencies.length, nanos, latencies);
+    }
+
+    /**
+     * Партии одного соединения
+     *
+     * @return Время ответа на каждую команду в наносекундах
+     */
+    private long[] play(int games, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        Latencies latencies = new Latencies();
+        try (Socket socket = new Socket(host, port);
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             BufferedWriter out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            socket.setTcpNoDelay(true);
+            String[] field = request(in, out, "field").split(" ");
+            int sideX = Integer.parseInt(field[1]), sideY = Integer.parseInt(field[2]);
+
+            for (int game = 0; game < games; game++) {
+                if (game > 0) request(in, out, "reset");
+                String[] reply = request(in, out, "place " + sideX / 2 + " " + sideY / 2).split(" ");
+                while ("IN_PROGRESS".equals(reply[1])) {
+                    int catX = Integer.parseInt(reply[2]), catY = Integer.parseInt(reply[3]);
+                    int first = random.nextInt(AROUND.length);
+                    String answer = "ERROR";
+                    for (int i = 0; i < AROUND.length && answer.startsWith("ERROR"); i++) {
+                        int[] step = AROUND[(first + i) % AROUND.length];
+                        answer = latencies.request(in, out, "block " + (catX + step[0]) + " " + (catY + step[1]));
+                    }
+                    while (answer.startsWith("ERROR")) {
+                        answer = latencies.request(in, out, "block " + random.nextInt(sideX) + " " + random.nextInt(sideY));
+                    }
+                    reply = answer.split(" ");
+                }
+            }
+            request(in, out, "quit");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return Arrays.copyOf(latencies.values, latencies.count);
+    }
+
+    /**
+     * Замеры времени ответа одного соединения
+     */
+    private static final class Latencies {
+        private long[] values = new long[64];
+        private int count = 0;
+
+        String request(BufferedReader in, BufferedWriter out, String command) throws IOException {
+            long sent = System.nanoTime();
+            String reply = LoadGenerator.request(in, out, command);
+            if (count == values.length) values = Arrays.copyOf(values, count * 2);
+            values[count++] = System.nanoTime() - sent;
+            return reply;
+        }
+    }
+
+    private static String request(BufferedReader in, BufferedWriter out, String command) throws IOException {
+        out.write(command);
+        out.write('\n');
+        out.flush();
+        String reply = in.readLine();
+        if (reply == null) throw new IOException("Сервер закрыл соединение!");
+        return reply;
+    }
+
+    /**
+     * Нагрузка на локальный сервер: {@code [соединений] [партий на соединение] [порт]}.<br>
+     * Без порта поднимается встроенный сервер.
+     */
+    public static void main(String[] args) {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        if (args.length > 2) {
+            System.out.println(new LoadGenerator("localhost", Integer.parseInt(args[2])).run(clients, games));
+            return;
+        }
+        try (GameServer server = new GameServer(0, 11, 11)) {
+            System.out.println(new LoadGenerator("localhost", server.getPort()).run(clients, games));
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package items;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Замеры горячих участков игры.<br>
+ * Сбор выключен по умолчанию; включается {@link #setEnabled(boolean)} или свойством
+ * {@code -Dcatgame.metrics=true}. Значения читаются текстом через {@link #text()}
+ * (его отдает {@link MetricsServer}) и через JMX после {@link #registerMBeans()}.
+ */
+public final class Metrics {
+    /**
+     * В среднем замеряется длительность одного вызова из стольких
+     */
+    static final int SAMPLE = 32;
+
+    private static volatile boolean enabled = Boolean.getBoolean("catgame.metrics");
+
+    /** Ход целиком: блокировка, ответ Кота и проверки */
+    public static final LatencyHistogram TURN = new LatencyHistogram("turn");
+    /** {@link Cat#move(Side)} */
+    public static final LatencyHistogram CAT_MOVE = new LatencyHistogram("cat_move");
+    /** {@link Field#isCatClosed()} */
+    public static final LatencyHistogram CAT_CLOSED = new LatencyHistogram("cat_closed");
+    /** {@link Field#isCatOnBorder()} */
+    public static final LatencyHistogram CAT_ON_BORDER = new LatencyHistogram("cat_on_border");
+    /** {@link Field#reset(boolean[])} */
+    public static final LatencyHistogram BOARD_RESET = new LatencyHistogram("board_reset");
+    /** Решение стратегии Кота */
+    public static final LatencyHistogram CAT_DECISION = new LatencyHistogram("cat_decision");
+    /** Решение стратегии блокирующего игрока */
+    public static final LatencyHistogram BLOCKER_DECISION = new LatencyHistogram("blocker_decision");
+
+    private static final List<LatencyHistogram> ALL =
+            List.of(TURN, CAT_MOVE, CAT_CLOSED, CAT_ON_BORDER, BOARD_RESET, CAT_DECISION, BLOCKER_DECISION);
+
+    private Metrics() {}
+
+    public static boolean isEnabled() { return enabled; }
+    public static void setEnabled(boolean value) { enabled = value; }
+
+    /**
+     * Все гистограммы
+     */
+    public static List<LatencyHistogram> all() { return ALL; }
+
+    /**
+     * Обнулить все гистограммы
+     */
+    public static void reset() {
+        for (LatencyHistogram histogram : ALL) histogram.reset();
+    }
+
+    /**
+     * Значения в текстовом формате Prometheus: для каждой гистограммы точное число вызовов,
+     * сводка замеров (квантили, число и сумма в наносекундах) и наибольший замер отдельной метрикой
+     */
+    public static String text() {
+        StringBuilder text = new StringBuilder();
+        for (LatencyHistogram histogram : ALL) {
+            String name = "catgame_" + histogram.getName();
+            text.append("# TYPE ").append(name).append("_calls_total counter\n");
+            text.append(name).append("_calls_total ").append(histogram.getCalls()).append('\n');
+            text.append("# TYPE ").append(name).append("_nanos summary\n");
+            for (double quantile : new double[] {0.5, 0.9, 0.99, 0.999}) {
+                text.append(name).append("_nanos{quantile=\"").append(quantile).append("\"} ")
+                        .append(histogram.getValueAtPercentile(quantile * 100)).append('\n');
+            }
+            long count = histogram.getCount();
+            text.append(name).append("_nanos_sum ").append(String.format(Locale.ROOT, "%.0f", histogram.getMean() * count)).append('\n');
+            text.append(name).append("_nanos_count ").append(count).append('\n');
+            text.append("# TYPE ").append(name).append("_nanos_max gauge\n");
+            text.append(name).append("_nanos_max ").append(histogram.getMax()).append('\n');
+        }
+        return text.toString();
+    }
+
+    /**
+     * Зарегистрировать гистограммы в платформенном MBean-сервере
+     * под именами {@code items:type=Metrics,name=...}. Повторный вызов ничего не делает.
+     *
+     * @throws IllegalStateException Если регистрация не удалась
+     */
+    public static synchronized void registerMBeans() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (LatencyHistogram histogram : ALL) {
+            try {
+                server.registerMBean(histogram, new ObjectName("items:type=Metrics,name=" + histogram.getName()));
+            } catch (InstanceAlreadyExistsException ignored) {
+                // Уже зарегистрирована
+            } catch (JMException e) {
+                throw new IllegalStateException("Не удалось зарегистрировать метрики в JMX!", e);
+            }
+        }
+    }
+}
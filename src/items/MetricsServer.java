@@ -0,0 +1,59 @@
+package items;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Отдача замеров по HTTP на локальном адресе.<br>
+ * {@code GET /metrics} возвращает {@link Metrics#text()}; сервер только отвечает на запросы
+ * и сам ничего не отправляет. Запросы обслуживает один поток.
+ */
+public class MetricsServer implements AutoCloseable {
+    private final HttpServer server;
+
+    /**
+     * Запускает сервер замеров.
+     *
+     * @param port Порт; {@code 0} - любой свободный
+     * @throws UncheckedIOException Если порт занят
+     */
+    public MetricsServer(int port) {
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 16);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось запустить сервер метрик!", e);
+        }
+        server.createContext("/metrics", this::handle);
+        server.start();
+    }
+
+    public int getPort() { return server.getAddress().getPort(); }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("GET")) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = Metrics.text().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    /**
+     * Остановить сервер
+     */
+    @Override
+    public void close() { server.stop(0); }
+}
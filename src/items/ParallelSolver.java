@@ -0,0 +1,190 @@
+package items;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Параллельный поиск лучшего хода блокирующего игрока.<br>
+ * Ходы из корня делятся между потоками {@link ForkJoinPool}. У каждого потока свой
+ * {@link Solver} с собственной копией позиции, а таблица транспозиций и лучшая найденная
+ * оценка общие и обновляются без блокировок.
+ */
+public class ParallelSolver {
+    private final ForkJoinPool pool;
+    private final TranspositionTable table;
+    private final ThreadLocal<Solver> solvers;
+    private final Solver rootSolver;
+
+    /**
+     * Создает поиск на всех ядрах с общей таблицей на 2^22 позиций.
+     */
+    public ParallelSolver() { this(Runtime.getRuntime().availableProcessors(), 22); }
+
+    /**
+     * Создает параллельный поиск.
+     *
+     * @param threads   Число потоков
+     * @param tableBits Двоичный логарифм числа записей общей таблицы
+     * @throws IllegalArgumentException Если число потоков меньше единицы или размер таблицы вне диапазона 1..30
+     */
+    public ParallelSolver(int threads, int tableBits) {
+        if (threads < 1) throw new IllegalArgumentException("Число потоков должно быть больше нуля!");
+        if (tableBits < 1 || tableBits > 30) throw new IllegalArgumentException("Размер таблицы должен быть от 2^1 до 2^30!");
+        pool = new ForkJoinPool(threads);
+        table = new TranspositionTable(tableBits);
+        solvers = ThreadLocal.withInitial(() -> new Solver(table));
+        rootSolver = new Solver(table);
+    }
+
+    /**
+     * Найти лучшую Ячейку для блокировки.<br>
+     * Поле не должно изменяться, пока идет поиск.
+     *
+     * @param field           Поле с Котом
+     * @param maxDepth        Максимальная глубина перебора в ходах (блокировка и ответ Кота)
+     * @param timeLimitMillis Ограничение времени; {@code 0} - без ограничения
+     *
+     * @throws NullPointerException     Если Поле пустое или на нем нет Кота
+     * @throws IllegalArgumentException Если глубина меньше единицы
+     */
+    public Solver.Result solve(Field field, int maxDepth, long timeLimitMillis) {
+        if (field == null) throw new NullPointerException("Невозможно искать ход без поля!");
+        if (field.getCat() == null) throw new NullPointerException("Невозможно искать ход без кота!");
+        if (maxDepth < 1) throw new IllegalArgumentException("Глубина поиска должна быть больше нуля!");
+
+        Board board = field.board();
+        Cell catCell = field.getCat().getCell();
+        if (catCell.board() != board) throw new IllegalArgumentException("Кот находится не на этом поле!");
+
+        Position position = new Position(board.getSideX(), board.getSideY(), Solver.snapshot(board), catCell.index());
+        rootSolver.load(position.sideX, position.sideY, position.closed, position.cat);
+        Solver.Result decided = rootSolver.decided();
+        if (decided != null) return decided;
+
+        int[] moves = rootSolver.rootMoves();
+        int[] scores = new int[moves.length];
+        boolean[] exact = new boolean[moves.length];
+        long deadline = timeLimitMillis > 0 ? System.nanoTime() + timeLimitMillis * 1_000_000 : Long.MAX_VALUE;
+        LongAdder nodes = new LongAdder();
+
+        int bestMove = -1, bestScore = 0, reached = 0;
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            GameEvents.SearchIteration event =
+                    GameEvents.searchStarted(position.sideX, position.sideY, depth, pool.getParallelism());
+            Arrays.fill(exact, false);
+            AtomicInteger alpha = new AtomicInteger(-Solver.INFINITY);
+            AtomicBoolean aborted = new AtomicBoolean(false);
+            pool.invoke(new RootTask(position, moves, scores, exact, 0, moves.length, depth, deadline, alpha, aborted, nodes));
+
+            int move = -1, score = -Solver.INFINITY;
+            for (int i = 0; i < moves.length; i++) {
+                if (exact[i] && scores[i] > score) {
+                    score = scores[i];
+                    move = moves[i];
+                }
+            }
+            GameEvents.searchFinished(event, nodes.sum(), score, move, aborted.get());
+            if (aborted.get()) {
+                if (bestMove < 0) {
+                    bestMove = move;
+                    bestScore = score;
+                }
+                break;
+            }
+
+            bestMove = move;
+            bestScore = score;
+            reached = depth;
+            if (Solver.isDecided(score)) break;
+            sortByScore(moves, scores);
+        }
+        return rootSolver.result(bestMove, bestScore, reached, nodes.sum());
+    }
+
+    /**
+     * Остановить потоки поиска
+     */
+    public void shutdown() { pool.shutdown(); }
+
+    /**
+     * Упорядочить ходы по убыванию оценки прошлой итерации: лучшие ходы быстрее поднимают
+     * общую нижнюю границу
+     */
+    private static void sortByScore(int[] moves, int[] scores) {
+        for (int i = 1; i < moves.length; i++) {
+            int move = moves[i], score = scores[i], j = i;
+            while (j > 0 && scores[j - 1] < score) {
+                moves[j] = moves[j - 1];
+                scores[j] = scores[j - 1];
+                j--;
+            }
+            moves[j] = move;
+            scores[j] = score;
+        }
+    }
+
+    /**
+     * Неизменяемая копия позиции, общая для всех потоков
+     */
+    private record Position(int sideX, int sideY, boolean[] closed, int cat) {}
+
+    /**
+     * Оценка диапазона ходов из корня
+     */
+    private class RootTask extends RecursiveAction {
+        private final Position position;
+        private final int[] moves, scores;
+        private final boolean[] exact;
+        private final int from, to, depth;
+        private final long deadline;
+        private final AtomicInteger alpha;
+        private final AtomicBoolean aborted;
+        private final LongAdder nodes;
+
+        RootTask(Position position, int[] moves, int[] scores, boolean[] exact, int from, int to, int depth,
+                 long deadline, AtomicInteger alpha, AtomicBoolean aborted, LongAdder nodes) {
+            this.position = position;
+            this.moves = moves;
+            this.scores = scores;
+            this.exact = exact;
+            this.from = from;
+            this.to = to;
+            this.depth = depth;
+            this.deadline = deadline;
+            this.alpha = alpha;
+            this.aborted = aborted;
+            this.nodes = nodes;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new RootTask(position, moves, scores, exact, from, middle, depth, deadline, alpha, aborted, nodes),
+                        new RootTask(position, moves, scores, exact, middle, to, depth, deadline, alpha, aborted, nodes));
+                return;
+            }
+            if (aborted.get()) return;
+
+            Solver solver = solvers.get();
+            solver.load(position.sideX, position.sideY, position.closed, position.cat);
+            solver.prepare(depth, deadline);
+            int bound = alpha.get();
+            int value = solver.rootValue(moves[from], depth, bound);
+            nodes.add(solver.getNodes());
+            if (solver.isAborted()) {
+                aborted.set(true);
+                return;
+            }
+
+            // Оценка не выше границы - лишь верхняя оценка хода, лучшим он быть не может
+            scores[from] = value;
+            exact[from] = value > bound;
+            alpha.accumulateAndGet(value, Math::max);
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package items;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Связные области проходимых Ячеек Поля.<br>
+ * Каждой открытой Ячейке назначена метка области, для области известны размер и число
+ * Ячеек на краю Поля. Метки поддерживаются инкрементально: при открытии Ячейки меньшие
+ * области перекрашиваются в большую, при закрытии из соседей запускаются параллельные
+ * обходы, и перекрашиваются только отделившиеся части, которые обходы исчерпали первыми.
+ * Инкрементальные правки смотрят только на свои метки: на параллельном Поле хранилище
+ * может уже опережать поток событий. На параллельном Поле разметка защищена собственным замком.
+ */
+public class Regions {
+    private static final Side[] SIDES = Side.values();
+    private static final int NONE = 0;
+
+    private final Field field;
+    private final Board board;
+    private final Lock lock;
+
+    private final int[] labels;
+    private final int[] sizes;
+    private final int[] borderCells;
+    private final int[] freeLabels;
+    private int freeCount = 0;
+
+    // Рабочие массивы обходов
+    private final int[] seen;
+    private final byte[] owner;
+    private int stamp = 0;
+    private final int[][] queues = new int[SIDES.length][64];
+    private final int[] heads = new int[SIDES.length];
+    private final int[] tails = new int[SIDES.length];
+    private final int[] groups = new int[SIDES.length];
+    private final boolean[] finished = new boolean[SIDES.length];
+    private final int[] starts = new int[SIDES.length];
+
+    /**
+     * Размечает области Поля и подписывает разметку на изменения Ячеек.
+     *
+     * @param field Поле
+     */
+    Regions(Field field) {
+        this.field = field;
+        this.board = field.board();
+        lock = board.newLock();
+        labels = new int[board.size()];
+        sizes = new int[board.size() + 1];
+        borderCells = new int[board.size() + 1];
+        freeLabels = new int[board.size()];
+        seen = new int[board.size()];
+        owner = new byte[board.size()];
+
+        board.addListener(new BoardListener() {
+            @Override
+            public void cellChanged(int index, byte oldState, byte newState) {
+                boolean wasOpen = (oldState & Board.CLOSED) == 0;
+                boolean isOpen = (newState & Board.CLOSED) == 0;
+                lock.lock();
+                try {
+                    if (wasOpen && !isOpen) closed(index);
+                    else if (!wasOpen && isOpen) opened(index);
+                } finally {
+                    lock.unlock();
+                }
+            }
+
+            @Override
+            public void boardReset() { rebuild(); }
+        }, this::rebuild);
+    }
+
+    /**
+     * Размер области, в которой находится Ячейка
+     *
+     * @param x Координата X
+     * @param y Координата Y
+     * @return Число Ячеек области или {@code 0}, если Ячейка вне Поля или закрыта
+     */
+    public int regionSize(int x, int y) {
+        lock.lock();
+        try {
+            int index = board.index(x, y);
+            return index < 0 ? 0 : sizes[labels[index]];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Есть ли в области Ячейки выход на край Поля
+     *
+     * @param x Координата X
+     * @param y Координата Y
+     */
+    public boolean reachesBorder(int x, int y) {
+        lock.lock();
+        try {
+            int index = board.index(x, y);
+            return index >= 0 && borderCells[labels[index]] > 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Размер области, в которой находится Кот
+     *
+     * @throws NullPointerException Если Кота нет на Поле
+     */
+    public int catRegionSize() {
+        lock.lock();
+        try {
+            return sizes[labels[catIndex()]];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Может ли Кот добраться до края Поля
+     *
+     * @throws NullPointerException Если Кота нет на Поле
+     */
+    public boolean canCatEscape() {
+        lock.lock();
+        try {
+            return borderCells[labels[catIndex()]] > 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int catIndex() {
+        Cell cell = field.getCat().getCell();
+        if (cell.board() != board) throw new IllegalStateException("Кот находится не на этом поле!");
+        return cell.index();
+    }
+
+    /**
+     * Полная разметка областей обходом в ширину; хранилище при этом не меняется
+     */
+    private void rebuild() {
+        lock.lock();
+        try {
+            Arrays.fill(labels, NONE);
+            Arrays.fill(sizes, 0);
+            Arrays.fill(borderCells, 0);
+            freeCount = 0;
+            for (int label = board.size(); label > 0; label--) freeLabels[freeCount++] = label;
+
+            for (int i = 0; i < labels.length; i++) {
+                if (labels[i] != NONE || !board.isOpen(i)) continue;
+                int label = freeLabels[--freeCount];
+                labels[i] = label;
+                queues[0][0] = i;
+                paint(1, label);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Обойти область от Ячеек первой очереди и пометить все ее Ячейки меткой
+     *
+     * @param tail число Ячеек, уже помеченных и стоящих в очереди
+     */
+    private void paint(int tail, int label) {
+        int head = 0;
+        while (head < tail) {
+            int current = queues[0][head++];
+            sizes[label]++;
+            if (board.onBorder(current)) borderCells[label]++;
+            for (Side side : SIDES) {
+                int next = board.adjacent(current, side);
+                if (next < 0 || labels[next] == label || !board.isOpen(next)) continue;
+                labels[next] = label;
+                tail = enqueue(0, tail, next);
+            }
+        }
+    }
+
+    private int enqueue(int queue, int tail, int index) {
+        if (tail == queues[queue].length) queues[queue] = Arrays.copyOf(queues[queue], tail * 2);
+        queues[queue][tail] = index;
+        return tail + 1;
+    }
+
+    private void release(int label) {
+        sizes[label] = 0;
+        borderCells[label] = 0;
+        freeLabels[freeCount++] = label;
+    }
+
+    /**
+     * Ячейка стала проходимой: она и соседние области сливаются в самую большую из них
+     */
+    private void opened(int index) {
+        int target = NONE;
+        for (Side side : SIDES) {
+            int next = board.adjacent(index, side);
+            if (next < 0 || labels[next] == NONE) continue;
+            if (target == NONE || sizes[labels[next]] > sizes[target]) target = labels[next];
+        }
+        if (target == NONE) {
+            target = freeLabels[--freeCount];
+        }
+
+        labels[index] = target;
+        sizes[target]++;
+        if (board.onBorder(index)) borderCells[target]++;
+
+        for (Side side : SIDES) {
+            int next = board.adjacent(index, side);
+            if (next < 0 || labels[next] == NONE) continue;
+            int label = labels[next];
+            if (label == target) continue;
+            sizes[target] += sizes[label];
+            borderCells[target] += borderCells[label];
+            release(label);
+
+            labels[next] = target;
+            queues[0][0] = next;
+            int head = 0, tail = 1;
+            while (head < tail) {
+                int current = queues[0][head++];
+                for (Side around : SIDES) {
+                    int cell = board.adjacent(current, around);
+                    if (cell < 0 || labels[cell] != label) continue;
+                    labels[cell] = target;
+                    tail = enqueue(0, tail, cell);
+                }
+            }
+        }
+    }
+
+    /**
+     * Ячейка стала непроходимой: ее область может распасться на части.<br>
+     * Из каждого открытого соседа запускается свой обход, обходы ходят по очереди.
+     * Встретившиеся обходы объединяются, а группа обходов, исчерпавшая свою часть раньше
+     * остальных, получает новую метку. Работа пропорциональна размеру отделившихся частей.
+     */
+    private void closed(int index) {
+        int label = labels[index];
+        if (label == NONE) return;
+        labels[index] = NONE;
+        sizes[label]--;
+        if (board.onBorder(index)) borderCells[label]--;
+
+        int count = 0;
+        for (Side side : SIDES) {
+            int next = board.adjacent(index, side);
+            if (next >= 0 && labels[next] != NONE) starts[count++] = next;
+        }
+        if (sizes[label] == 0) release(label);
+        if (count < 2) return;
+
+        if (++stamp == 0) {
+            Arrays.fill(seen, 0);
+            stamp = 1;
+        }
+        for (int i = 0; i < count; i++) {
+            heads[i] = 0;
+            tails[i] = 0;
+            groups[i] = i;
+            finished[i] = false;
+            seen[starts[i]] = stamp;
+            owner[starts[i]] = (byte) i;
+            tails[i] = enqueue(i, 0, starts[i]);
+        }
+
+        int active = count;
+        while (active > 1) {
+            for (int i = 0; i < count; i++) {
+                if (heads[i] == tails[i]) continue;
+                int current = queues[i][heads[i]++];
+                for (Side side : SIDES) {
+                    int next = board.adjacent(current, side);
+                    if (next < 0 || labels[next] == NONE) continue;
+                    if (seen[next] == stamp) {
+                        if (union(owner[next], i)) active--;
+                        continue;
+                    }
+                    seen[next] = stamp;
+                    owner[next] = (byte) i;
+                    tails[i] = enqueue(i, tails[i], next);
+                }
+            }
+
+            for (int group = 0; group < count && active > 1; group++) {
+                if (finished[group] || find(group) != group || !exhausted(group, count)) continue;
+                finished[group] = true;
+                active--;
+                split(group, count, label);
+            }
+        }
+    }
+
+    /**
+     * Исчерпали ли все обходы группы свои очереди
+     */
+    private boolean exhausted(int group, int count) {
+        for (int i = 0; i < count; i++) {
+            if (find(i) == group && heads[i] != tails[i]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Отделить часть, найденную обходами группы, в новую область
+     */
+    private void split(int group, int count, int oldLabel) {
+        int label = freeLabels[--freeCount];
+        for (int i = 0; i < count; i++) {
+            if (find(i) != group) continue;
+            for (int j = 0; j < tails[i]; j++) {
+                int cell = queues[i][j];
+                labels[cell] = label;
+                sizes[label]++;
+                if (board.onBorder(cell)) borderCells[label]++;
+            }
+        }
+        sizes[oldLabel] -= sizes[label];
+        borderCells[oldLabel] -= borderCells[label];
+    }
+
+    private int find(int search) {
+        while (groups[search] != search) search = groups[search];
+        return search;
+    }
+
+    /**
+     * Объединить группы обходов
+     *
+     * @return {@code true}, если группы были разными
+     */
+    private boolean union(int first, int second) {
+        int a = find(first), b = find(second);
+        if (a == b) return false;
+        if (a > b) { int t = a; a = b; b = t; }
+        groups[b] = a;
+        return true;
+    }
+}
@@ -0,0 +1,220 @@
+package items;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Запись одной партии, прочитанная из потока {@link ReplayRecorder}.<br>
+ * Данные не копируются: запись читает ходы прямо из буфера. Позиция на любом ходу
+ * восстанавливается от ближайшего опорного кадра.
+ */
+public class Replay {
+    private static final Side[] SIDES = Side.values();
+
+    /**
+     * Обработчик ходов записи
+     */
+    @FunctionalInterface
+    public interface TurnVisitor {
+        /**
+         * @param turn   Номер хода с единицы
+         * @param blockX Координата X заблокированной Ячейки
+         * @param blockY Координата Y заблокированной Ячейки
+         * @param catX   Координата X Кота после хода
+         * @param catY   Координата Y Кота после хода
+         */
+        void turn(int turn, int blockX, int blockY, int catX, int catY);
+    }
+
+    private final ByteBuffer data;
+    private final int side_x;
+    private final int side_y;
+    private final int obstaclesStart;
+    private final int catStart;
+    private final Game.Status status;
+    private final int turns;
+    private final int interval;
+    private final int keyframesStart;
+    private final int keyframeSize;
+    private final int movesStart;
+
+    private Replay(ByteBuffer data) {
+        this.data = data;
+        side_x = Varint.read(data);
+        side_y = Varint.read(data);
+        if (side_x <= 0 || side_y <= 0 || (long) side_x * side_y > Integer.MAX_VALUE) throw new IllegalArgumentException("Запись партии повреждена!");
+        int size = side_x * side_y;
+        obstaclesStart = data.position();
+        int obstacles = Varint.read(data), index = -1;
+        for (int i = 0; i < obstacles; i++) {
+            int gap = Varint.read(data);
+            if (gap < 0 || gap >= size - 1 - index) throw new IllegalArgumentException("Запись партии повреждена!");
+            index += gap + 1;
+        }
+        catStart = Varint.read(data);
+        if (catStart < 0 || catStart >= size) throw new IllegalArgumentException("Запись партии повреждена!");
+        int statusIndex = Varint.read(data);
+        if (statusIndex >= Game.Status.values().length) throw new IllegalArgumentException("Запись партии повреждена!");
+        status = Game.Status.values()[statusIndex];
+        turns = Varint.read(data);
+        interval = Varint.read(data);
+        if (turns < 0 || interval <= 0) throw new IllegalArgumentException("Запись партии повреждена!");
+        keyframesStart = data.position();
+        keyframeSize = 8 + (size + 7) / 8;
+        long moves = keyframesStart + (long) (turns / interval) * keyframeSize;
+        if (moves > data.limit()) throw new IllegalArgumentException("Запись партии повреждена!");
+        movesStart = (int) moves;
+    }
+
+    /**
+     * Проверить заголовок потока записей
+     *
+     * @throws IllegalArgumentException Если поток не является записью партий
+     */
+    public static void readHeader(ByteBuffer buffer) {
+        if (buffer.remaining() < ReplayRecorder.MAGIC.length + 1) throw new IllegalArgumentException("Это не файл записей партий!");
+        for (byte b : ReplayRecorder.MAGIC) {
+            if (buffer.get() != b) throw new IllegalArgumentException("Это не файл записей партий!");
+        }
+        if (buffer.get() != ReplayRecorder.VERSION) throw new IllegalArgumentException("Неподдерживаемая версия записей партий!");
+    }
+
+    /**
+     * Прочитать следующую запись и сдвинуть позицию буфера за нее
+     *
+     * @return Запись или {@code null}, если буфер закончился
+     * @throws IllegalArgumentException Если запись повреждена или обрывается
+     */
+    public static Replay read(ByteBuffer buffer) {
+        if (!buffer.hasRemaining()) return null;
+        try {
+            int length = Varint.read(buffer);
+            if (length < 0) throw new IllegalArgumentException("Запись партии повреждена!");
+            if (length > buffer.remaining()) throw new IllegalArgumentException("Запись партии обрывается!");
+            ByteBuffer data = buffer.slice(buffer.position(), length);
+            buffer.position(buffer.position() + length);
+            return new Replay(data);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Запись партии повреждена!", e);
+        }
+    }
+
+    public int getSideX() { return side_x; }
+    public int getSideY() { return side_y; }
+    public Game.Status getStatus() { return status; }
+
+    /**
+     * Число ходов блокирующего игрока
+     */
+    public int getTurns() { return turns; }
+
+    public int getCatStartX() { return catStart % side_x; }
+    public int getCatStartY() { return catStart / side_x; }
+
+    /**
+     * Обойти ходы партии по порядку
+     *
+     * @throws IllegalArgumentException Если ходы записи повреждены
+     */
+    public void forEachTurn(TurnVisitor visitor) {
+        ByteBuffer moves = data.slice(movesStart, data.limit() - movesStart);
+        int cat = catStart;
+        for (int turn = 1; turn <= turns; turn++) {
+            int move = readMove(moves);
+            int block = move >>> 3;
+            cat = step(cat, move & 7);
+            visitor.turn(turn, block % side_x, block / side_x, cat % side_x, cat / side_x);
+        }
+    }
+
+    /**
+     * Восстановить закрытые Ячейки и Ячейку Кота после заданного хода.<br>
+     * Берется ближайший опорный кадр, от него проигрывается меньше K ходов.
+     *
+     * @param turn   Номер хода; {@code 0} - начало партии
+     * @param closed Маска закрытых Ячеек по строкам, заполняется
+     * @return Индекс Ячейки Кота {@code y * длина + x}
+     * @throws IndexOutOfBoundsException Если ход вне партии или маска не совпадает с размером Поля
+     * @throws IllegalArgumentException  Если опорный кадр или ходы записи повреждены
+     */
+    public int positionAt(int turn, boolean[] closed) {
+        if (turn < 0 || turn > turns) throw new IndexOutOfBoundsException(turn);
+        if (closed.length != side_x * side_y) throw new IndexOutOfBoundsException(closed.length);
+
+        int keyframe = turn / interval;
+        int cat, offset;
+        if (keyframe == 0) {
+            ByteBuffer obstacles = data.slice(obstaclesStart, keyframesStart - obstaclesStart);
+            Arrays.fill(closed, false);
+            int count = Varint.read(obstacles), index = -1;
+            for (int i = 0; i < count; i++) {
+                index += Varint.read(obstacles) + 1;
+                closed[index] = true;
+            }
+            cat = catStart;
+            offset = 0;
+        } else {
+            int position = keyframesStart + (keyframe - 1) * keyframeSize;
+            offset = data.getInt(position);
+            cat = data.getInt(position + 4);
+            if (offset < 0 || offset > data.limit() - movesStart || cat < 0 || cat >= closed.length) {
+                throw new IllegalArgumentException("Запись партии повреждена!");
+            }
+            for (int i = 0; i < closed.length; i++) closed[i] = (data.get(position + 8 + (i >>> 3)) >>> (i & 7) & 1) != 0;
+        }
+
+        ByteBuffer moves = data.slice(movesStart + offset, data.limit() - movesStart - offset);
+        for (int played = keyframe * interval; played < turn; played++) {
+            int move = readMove(moves);
+            closed[move >>> 3] = true;
+            cat = step(cat, move & 7);
+        }
+        return cat;
+    }
+
+    /**
+     * Поле в положении после заданного хода
+     *
+     * @param turn Номер хода; {@code 0} - начало партии
+     * @throws IndexOutOfBoundsException Если ход вне партии
+     * @throws IllegalArgumentException  Если запись повреждена
+     */
+    public Field fieldAt(int turn) {
+        boolean[] closed = new boolean[side_x * side_y];
+        int cat = positionAt(turn, closed);
+        Field field = Field.rectangle(side_x, side_y, closed);
+        field.setCat(new Cat(field.cellAt(cat % side_x, cat / side_x)));
+        return field;
+    }
+
+    /**
+     * Прочитать код хода: индекс заблокированной Ячейки и направление Кота
+     *
+     * @throws IllegalArgumentException Если код поврежден или ходы обрываются
+     */
+    private int readMove(ByteBuffer moves) {
+        int move;
+        try {
+            move = Varint.read(moves);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Запись партии повреждена!", e);
+        }
+        if (move < 0 || move >>> 3 >= side_x * side_y || (move & 7) > ReplayRecorder.NO_MOVE) {
+            throw new IllegalArgumentException("Запись партии повреждена!");
+        }
+        return move;
+    }
+
+    private int step(int cat, int move) {
+        if (move == ReplayRecorder.NO_MOVE) return cat;
+        int next = switch (SIDES[move]) {
+            case LEFT -> cat - 1;
+            case RIGHT -> cat + 1;
+            case TOP -> cat - side_x;
+            case BOTTOM -> cat + side_x;
+        };
+        if (next < 0 || next >= side_x * side_y) throw new IllegalArgumentException("Запись партии повреждена!");
+        return next;
+    }
+}
@@ -0,0 +1,152 @@
+package items;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Архив записей партий в файле, отображенном в память.<br>
+ * Файл отображается областями до {@value #MAX_REGION} байт, границы областей проходят
+ * по границам записей. При открытии читаются только длины записей: по ним архив делится
+ * на отрезки примерно одного размера. Записи читаются прямо из отображения, без копирования
+ * в кучу, а отрезки можно обрабатывать параллельно.
+ */
+public class ReplayArchive {
+    private static final int MAX_REGION = 1 << 30;
+    private static final int SEGMENT = 4 << 20;
+
+    private final List<Segment> segments = new ArrayList<>();
+    private final long size;
+    private long games = 0;
+
+    /**
+     * Отрезок области: записи с позиции start до end
+     */
+    private record Segment(MappedByteBuffer region, int start, int end) {
+        ByteBuffer buffer() { return region.slice(start, end - start); }
+    }
+
+    /**
+     * Открывает архив с отрезками по {@value #SEGMENT} байт.
+     *
+     * @param path Файл, записанный {@link ReplayRecorder}
+     * @throws UncheckedIOException     Если файл не читается
+     * @throws IllegalArgumentException Если файл не является архивом записей или поврежден
+     */
+    public ReplayArchive(Path path) { this(path, SEGMENT); }
+
+    /**
+     * Открывает архив.
+     *
+     * @param path    Файл, записанный {@link ReplayRecorder}
+     * @param segment Примерный размер отрезка для параллельной обработки, в байтах
+     * @throws UncheckedIOException     Если файл не читается
+     * @throws IllegalArgumentException Если файл не является архивом записей, поврежден
+     *                                  или размер отрезка меньше единицы
+     */
+    public ReplayArchive(Path path, int segment) {
+        if (segment < 1) throw new IllegalArgumentException("Размер отрезка должен быть больше нуля!");
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            size = channel.size();
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(size, ReplayRecorder.MAGIC.length + 1));
+            Replay.readHeader(header);
+
+            long position = header.position();
+            while (position < size) {
+                position += split(channel, position, segment);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось открыть архив записей!", e);
+        }
+    }
+
+    /**
+     * Отобразить область с заданной позиции и разбить ее на отрезки
+     *
+     * @return Размер области до конца последней целой записи
+     */
+    private long split(FileChannel channel, long position, int segment) throws IOException {
+        int length = (int) Math.min(MAX_REGION, size - position);
+        boolean last = position + length == size;
+        MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+
+        int offset = 0, start = 0;
+        while (offset < length) {
+            int record;
+            try {
+                record = Varint.read(region.position(offset));
+            } catch (BufferUnderflowException e) {
+                if (last) throw new IllegalArgumentException("Запись партии обрывается!");
+                break;
+            }
+            if (record > region.remaining()) {
+                if (last) throw new IllegalArgumentException("Запись партии обрывается!");
+                if (offset == 0) throw new IllegalArgumentException("Запись партии слишком большая!");
+                break;
+            }
+            offset = region.position() + record;
+            games++;
+            if (offset - start >= segment) {
+                segments.add(new Segment(region, start, offset));
+                start = offset;
+            }
+        }
+        if (offset > start) segments.add(new Segment(region, start, offset));
+        return offset;
+    }
+
+    /**
+     * Размер файла в байтах
+     */
+    public long getSize() { return size; }
+
+    /**
+     * Число записей партий
+     */
+    public long getGames() { return games; }
+
+    /**
+     * Число отрезков для параллельной обработки
+     */
+    public int getSegments() { return segments.size(); }
+
+    /**
+     * Обойти записи по порядку в текущем потоке
+     */
+    public void forEach(Consumer<Replay> action) {
+        for (Segment segment : segments) read(segment, action);
+    }
+
+    /**
+     * Свести записи параллельно по отрезкам.<br>
+     * Каждый отрезок обрабатывается своим накопителем, затем накопители объединяются.
+     *
+     * @param supplier    Создание пустого накопителя
+     * @param accumulator Добавление записи в накопитель
+     * @param combiner    Перенос второго накопителя в первый
+     * @return Накопитель со всеми записями архива
+     */
+    public <A> A aggregate(Supplier<A> supplier, BiConsumer<A, Replay> accumulator, BiConsumer<A, A> combiner) {
+        return IntStream.range(0, segments.size()).parallel().collect(
+                supplier,
+                (result, index) -> read(segments.get(index), replay -> accumulator.accept(result, replay)),
+                combiner);
+    }
+
+    private static void read(Segment segment, Consumer<Replay> action) {
+        ByteBuffer buffer = segment.buffer();
+        Replay replay;
+        while ((replay = Replay.read(buffer)) != null) action.accept(replay);
+    }
+}
@@ -0,0 +1,200 @@
+package items;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+/**
+ * Запись партий в компактный двоичный формат.<br>
+ * Поток начинается с заголовка {@code CATR} и версии, дальше идут записи партий подряд.
+ * Запись партии - длина (varint) и данные:
+ * <pre>
+ * длина, ширина Поля                     varint, varint
+ * число препятствий, разности индексов   varint, varint...
+ * Ячейка Кота в начале                   varint
+ * результат, число ходов                 varint, varint
+ * интервал опорных кадров K              varint
+ * опорные кадры                          после каждых K ходов: смещение хода в потоке (4 байта),
+ *                                        Ячейка Кота (4 байта), закрытые Ячейки (бит на Ячейку)
+ * ходы                                   varint (индекс заблокированной Ячейки << 3 | ход Кота)
+ * </pre>
+ * Ход Кота - номер {@link Side} или 4, если Кот не ходил. Опорные кадры одного размера,
+ * поэтому переход к любому ходу стоит не больше K шагов от ближайшего кадра.
+ */
+public class ReplayRecorder implements Game.Listener {
+    static final byte[] MAGIC = {'C', 'A', 'T', 'R'};
+    static final byte VERSION = 1;
+    static final int KEYFRAME = 32;
+    static final int NO_MOVE = 4;
+
+    private final OutputStream out;
+    private Board board;
+    private boolean recording = false;
+    private int turns = 0;
+    private int catStart;
+    private int catIndex;
+
+    private final Buffer obstacles = new Buffer();
+    private final Buffer header = new Buffer();
+    private final Buffer keyframes = new Buffer();
+    private final Buffer moves = new Buffer();
+    private final Buffer record = new Buffer();
+
+    /**
+     * Растущий массив байт, переиспользуемый между партиями
+     */
+    private static final class Buffer {
+        private byte[] bytes = new byte[256];
+        private int length = 0;
+
+        void ensure(int extra) {
+            if (length + extra > bytes.length) bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + extra));
+        }
+
+        void varint(int value) {
+            ensure(5);
+            length = Varint.write(bytes, length, value);
+        }
+
+        void int32(int value) {
+            ensure(4);
+            bytes[length++] = (byte) (value >>> 24);
+            bytes[length++] = (byte) (value >>> 16);
+            bytes[length++] = (byte) (value >>> 8);
+            bytes[length++] = (byte) value;
+        }
+
+        void append(Buffer other) {
+            ensure(other.length);
+            System.arraycopy(other.bytes, 0, bytes, length, other.length);
+            length += other.length;
+        }
+    }
+
+    /**
+     * Создает запись в поток и пишет заголовок.
+     *
+     * @param out Поток для записей партий
+     * @throws NullPointerException Если поток пустой
+     * @throws UncheckedIOException При ошибке записи
+     */
+    public ReplayRecorder(OutputStream out) {
+        if (out == null) throw new NullPointerException("Невозможно записывать партии без потока!");
+        this.out = out;
+        try {
+            out.write(MAGIC);
+            out.write(VERSION);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void catPlaced(Game game) {
+        board = game.getField().board();
+        catStart = catIndex = game.getField().getCat().getCell().index();
+        turns = 0;
+        obstacles.length = 0;
+        writeObstacles();
+        keyframes.length = 0;
+        moves.length = 0;
+        recording = true;
+    }
+
+    @Override
+    public void turnPlayed(Game game, int blockX, int blockY, Side catMove) {
+        if (!recording) return;
+        moves.varint(board.index(blockX, blockY) << 3 | (catMove == null ? NO_MOVE : catMove.ordinal()));
+        catIndex = game.getField().getCat().getCell().index();
+        if (++turns % KEYFRAME == 0) keyframe();
+    }
+
+    @Override
+    public void gameFinished(Game game) { write(game.getStatus()); }
+
+    @Override
+    public void gameReset(Game game) { write(Game.Status.IN_PROGRESS); }
+
+    /**
+     * Партия с отмененными ходами не записывается
+     */
+    @Override
+    public void turnUndone(Game game) { recording = false; }
+
+    /**
+     * Опорный кадр: где в потоке ходов продолжение, где Кот и какие Ячейки закрыты
+     */
+    private void keyframe() {
+        keyframes.int32(moves.length);
+        keyframes.int32(catIndex);
+        int size = board.size();
+        keyframes.ensure((size + 7) / 8);
+        for (int i = 0; i < size; i += 8) {
+            int bits = 0;
+            for (int j = 0; j < 8 && i + j < size; j++) {
+                if (!board.isOpen(i + j)) bits |= 1 << j;
+            }
+            keyframes.bytes[keyframes.length++] = (byte) bits;
+        }
+    }
+
+    /**
+     * Записать партию в поток
+     */
+    private void write(Game.Status status) {
+        if (!recording) return;
+        recording = false;
+
+        header.length = 0;
+        header.varint(board.getSideX());
+        header.varint(board.getSideY());
+        header.append(obstacles);
+        header.varint(catStart);
+        header.varint(status.ordinal());
+        header.varint(turns);
+        header.varint(KEYFRAME);
+
+        int payload = header.length + keyframes.length + moves.length;
+        record.length = 0;
+        record.varint(payload);
+        record.append(header);
+        record.append(keyframes);
+        record.append(moves);
+        try {
+            out.write(record.bytes, 0, record.length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Препятствия в начале партии: число и разности индексов закрытых Ячеек
+     */
+    private void writeObstacles() {
+        int count = 0;
+        for (int i = 0; i < board.size(); i++) {
+            if (!board.isOpen(i)) count++;
+        }
+        obstacles.varint(count);
+        int previous = -1;
+        for (int i = 0; i < board.size(); i++) {
+            if (board.isOpen(i)) continue;
+            obstacles.varint(i - previous - 1);
+            previous = i;
+        }
+    }
+
+    /**
+     * Дописать накопленные данные потока
+     *
+     * @throws UncheckedIOException При ошибке записи
+     */
+    public void flush() {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package items;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Сводка по записям партий для каждого размера Поля: исходы, длина партий, в которых
+ * Кот сбежал, карта блокировок и карта Ячеек, с которых Кот сбегал.<br>
+ * Накопитель не потокобезопасен; для параллельной обработки у каждого потока свой,
+ * см. {@link ReplayArchive#aggregate}. Ходы обходятся без создания объектов.
+ */
+public class ReplayStatistics {
+    /**
+     * Сводка для одного размера Поля
+     */
+    public static final class Summary {
+        private final int side_x;
+        private final int side_y;
+        private long games = 0;
+        private long catEscapes = 0;
+        private long catCaught = 0;
+        private long escapeTurns = 0;
+        private final long[] blocks;
+        private final long[] escapes;
+
+        Summary(int sideX, int sideY) {
+            this.side_x = sideX;
+            this.side_y = sideY;
+            this.blocks = new long[sideX * sideY];
+            this.escapes = new long[sideX * sideY];
+        }
+
+        public int getSideX() { return side_x; }
+        public int getSideY() { return side_y; }
+        public long getGames() { return games; }
+        public long getCatEscapes() { return catEscapes; }
+        public long getCatCaught() { return catCaught; }
+
+        /**
+         * Доля партий, в которых Кот сбежал
+         */
+        public double getEscapeRate() { return games == 0 ? 0 : (double) catEscapes / games; }
+
+        /**
+         * Среднее число ходов в партиях, где Кот сбежал
+         */
+        public double getAverageEscapeTurns() { return catEscapes == 0 ? 0 : (double) escapeTurns / catEscapes; }
+
+        /**
+         * Сколько раз блокировалась Ячейка
+         */
+        public long getBlocks(int x, int y) { return blocks[y * side_x + x]; }
+
+        /**
+         * Сколько раз Кот сбегал с Ячейки
+         */
+        public long getEscapes(int x, int y) { return escapes[y * side_x + x]; }
+
+        private void merge(Summary other) {
+            games += other.games;
+            catEscapes += other.catEscapes;
+            catCaught += other.catCaught;
+            escapeTurns += other.escapeTurns;
+            for (int i = 0; i < blocks.length; i++) {
+                blocks[i] += other.blocks[i];
+                escapes[i] += other.escapes[i];
+            }
+        }
+    }
+
+    private final Map<Long, Summary> summaries = new HashMap<>();
+    private long games = 0;
+
+    // Сводка текущей записи и положение Кота после ее последнего хода
+    private Summary current;
+    private int catX, catY;
+    private final Replay.TurnVisitor visitor = (turn, blockX, blockY, x, y) -> {
+        current.blocks[blockY * current.side_x + blockX]++;
+        catX = x;
+        catY = y;
+    };
+
+    private static long key(int sideX, int sideY) { return (long) sideX << 32 | sideY; }
+
+    private Summary summary(int sideX, int sideY) {
+        if (current == null || current.side_x != sideX || current.side_y != sideY) {
+            current = summaries.computeIfAbsent(key(sideX, sideY), key -> new Summary(sideX, sideY));
+        }
+        return current;
+    }
+
+    /**
+     * Добавить запись партии
+     */
+    public void add(Replay replay) {
+        Summary board = summary(replay.getSideX(), replay.getSideY());
+        games++;
+        board.games++;
+        catX = replay.getCatStartX();
+        catY = replay.getCatStartY();
+        replay.forEachTurn(visitor);
+
+        if (replay.getStatus() == Game.Status.CAT_CAUGHT) board.catCaught++;
+        if (replay.getStatus() == Game.Status.CAT_ESCAPED) {
+            board.catEscapes++;
+            board.escapeTurns += replay.getTurns();
+            board.escapes[catY * board.side_x + catX]++;
+        }
+    }
+
+    /**
+     * Перенести сводку другого накопителя в этот
+     */
+    public void merge(ReplayStatistics other) {
+        games += other.games;
+        for (Summary board : other.summaries.values()) {
+            Summary mine = summaries.putIfAbsent(key(board.side_x, board.side_y), board);
+            if (mine != null) mine.merge(board);
+        }
+    }
+
+    /**
+     * Число записей партий
+     */
+    public long getGames() { return games; }
+
+    /**
+     * Сводка для размера Поля
+     *
+     * @return Сводка или {@code null}, если партий на таком Поле не было
+     */
+    public Summary getSummary(int sideX, int sideY) { return summaries.get(key(sideX, sideY)); }
+
+    /**
+     * Сводки для всех встреченных размеров Поля
+     */
+    public Collection<Summary> getSummaries() { return new ArrayList<>(summaries.values()); }
+}
@@ -0,0 +1,183 @@
+package items;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Пакетное моделирование партий методом Монте-Карло.<br>
+ * Партии делятся между потоками пачками. Каждый поток один раз создает свое Поле, Игру
+ * и стратегии игроков и дальше только сбрасывает Поле перед очередной партией.
+ * Препятствия партии зависят лишь от зерна и номера партии, поэтому результат
+ * не зависит от числа потоков.
+ */
+public class Simulator {
+    private static final int BATCH = 256;
+
+    private final int side_x;
+    private final int side_y;
+    private final double density;
+    private final Supplier<Game.CatPlayer> cats;
+    private final Supplier<Game.BlockerPlayer> blockers;
+
+    /**
+     * Итог моделирования
+     */
+    public static final class Statistics {
+        private final long games;
+        private final long blockerWins;
+        private final long turns;
+        private final long nanos;
+
+        Statistics(long games, long blockerWins, long turns, long nanos) {
+            this.games = games;
+            this.blockerWins = blockerWins;
+            this.turns = turns;
+            this.nanos = nanos;
+        }
+
+        public long getGames() { return games; }
+        public long getBlockerWins() { return blockerWins; }
+        public long getCatWins() { return games - blockerWins; }
+
+        /**
+         * Доля партий, в которых Кот пойман
+         */
+        public double getWinRate() { return games == 0 ? 0 : (double) blockerWins / games; }
+
+        /**
+         * Среднее число ходов блокирующего игрока за партию
+         */
+        public double getAverageLength() { return games == 0 ? 0 : (double) turns / games; }
+
+        /**
+         * Пропускная способность: партий в секунду
+         */
+        public double getGamesPerSecond() { return nanos == 0 ? 0 : games * 1e9 / nanos; }
+
+        @Override
+        public String toString() {
+            return String.format("Партий: %d, кот пойман: %.2f%%, средняя длина: %.2f, партий/с: %.0f",
+                    games, getWinRate() * 100, getAverageLength(), getGamesPerSecond());
+        }
+    }
+
+    /**
+     * Создает моделирование.<br>
+     * Кот ставится в центр Поля, остальные Ячейки блокируются случайно с заданной долей.
+     *
+     * @param sideX    Длина Поля. Требование: sideX > 3.
+     * @param sideY    Ширина Поля. Требование: sideY > 3.
+     * @param density  Доля заранее заблокированных Ячеек, от 0 до 1
+     * @param cats     Создание стратегии Кота; вызывается один раз на поток
+     * @param blockers Создание стратегии блокирующего игрока; вызывается один раз на поток
+     *
+     * @throws IllegalArgumentException При нарушении условий на размеры Поля или долю препятствий
+     * @throws NullPointerException     Если не заданы стратегии
+     */
+    public Simulator(int sideX, int sideY, double density,
+                     Supplier<Game.CatPlayer> cats, Supplier<Game.BlockerPlayer> blockers) {
+        if (sideX <= 3) throw new IllegalArgumentException("Длина поля должна быть больше трех!");
+        if (sideY <= 3) throw new IllegalArgumentException("Ширина поля должна быть больше трех!");
+        if (!(density >= 0 && density <= 1)) throw new IllegalArgumentException("Доля препятствий должна быть от 0 до 1!");
+        if (cats == null || blockers == null) throw new NullPointerException("Моделирование невозможно без стратегий игроков!");
+        this.side_x = sideX;
+        this.side_y = sideY;
+        this.density = density;
+        this.cats = cats;
+        this.blockers = blockers;
+    }
+
+    /**
+     * Сыграть партии
+     *
+     * @param games   Число партий
+     * @param threads Число потоков
+     * @param seed    Зерно случайных препятствий
+     *
+     * @throws IllegalArgumentException Если число партий отрицательное или потоков меньше одного
+     */
+    public Statistics run(long games, int threads, long seed) {
+        if (games < 0) throw new IllegalArgumentException("Число партий не может быть отрицательным!");
+        if (threads < 1) throw new IllegalArgumentException("Число потоков должно быть больше нуля!");
+
+        AtomicLong next = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        try {
+            List<Future<long[]>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) results.add(executor.submit(() -> play(next, games, seed)));
+
+            long blockerWins = 0, turns = 0;
+            for (Future<long[]> result : results) {
+                long[] counters = result.get();
+                blockerWins += counters[0];
+                turns += counters[1];
+            }
+            return new Statistics(games, blockerWins, turns, System.nanoTime() - start);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Моделирование прервано!", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Ошибка при моделировании партии!", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Цикл одного потока: берет пачки партий, пока они не кончатся
+     *
+     * @return Число побед блокирующего игрока и сумма длин партий
+     */
+    private long[] play(AtomicLong next, long games, long seed) {
+        Field field = Field.rectangle(side_x, side_y);
+        Game game = new Game(field, cats.get(), blockers.get());
+        boolean[] obstacles = new boolean[side_x * side_y];
+        int catX = side_x / 2, catY = side_y / 2;
+        int catIndex = catY * side_x + catX;
+        long threshold = (long) (density * (1L << 53));
+
+        long blockerWins = 0, turns = 0;
+        long from;
+        while ((from = next.getAndAdd(BATCH)) < games) {
+            long to = Math.min(from + BATCH, games);
+            for (long number = from; number < to; number++) {
+                long gameSeed = mix(seed + number * 0x9E3779B97F4A7C15L);
+                for (int i = 0; i < obstacles.length; i++) {
+                    obstacles[i] = i != catIndex && (mix(gameSeed + i) >>> 11) < threshold;
+                }
+                game.reset(obstacles);
+                game.placeCat(catX, catY);
+                if (game.start() == Game.Status.CAT_CAUGHT) blockerWins++;
+                turns += game.getTurns();
+            }
+        }
+        return new long[] {blockerWins, turns};
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Моделирование с параметрами из командной строки:
+     * {@code [партий] [сторона поля] [доля препятствий] [потоков]}
+     */
+    public static void main(String[] args) {
+        long games = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000;
+        int side = args.length > 1 ? Integer.parseInt(args[1]) : 11;
+        double density = args.length > 2 ? Double.parseDouble(args[2]) : 0.1;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+        Simulator simulator = new Simulator(side, side, density, () -> Game.SHORTEST_PATH, () -> Game.BLOCK_NEXT_STEP);
+        System.out.println(simulator.run(games, threads, System.nanoTime()));
+    }
+}
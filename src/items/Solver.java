@@ -0,0 +1,513 @@
+package items;
+
+import java.util.Arrays;
+
+/**
+ * Поиск лучшего хода блокирующего игрока.<br>
+ * Перебор дерева игры "блокировка - ход Кота" с альфа-бета отсечением, итеративным
+ * углублением и таблицей транспозиций. Поиск работает на собственной копии состояния
+ * Поля, само Поле не изменяется.
+ */
+public class Solver {
+    /**
+     * Итог позиции, доказанный перебором
+     */
+    public enum Outcome {
+        /** Блокирующий игрок ловит Кота при любой игре Кота */
+        BLOCKER_WINS,
+        /** Кот убегает при любой игре блокирующего игрока */
+        CAT_WINS,
+        /** Итог не доказан на достигнутой глубине */
+        UNKNOWN
+    }
+
+    /**
+     * Результат поиска
+     */
+    public static class Result {
+        private final int x, y;
+        private final Outcome outcome;
+        private final int score;
+        private final int depth;
+        private final long nodes;
+
+        Result(int x, int y, Outcome outcome, int score, int depth, long nodes) {
+            this.x = x;
+            this.y = y;
+            this.outcome = outcome;
+            this.score = score;
+            this.depth = depth;
+            this.nodes = nodes;
+        }
+
+        /**
+         * Есть ли ход: его нет, если Кот уже пойман или уже на краю Поля
+         */
+        public boolean hasMove() { return x >= 0; }
+        public int getX() { return x; }
+        public int getY() { return y; }
+        public Outcome getOutcome() { return outcome; }
+        public int getScore() { return score; }
+        public int getDepth() { return depth; }
+        public long getNodes() { return nodes; }
+    }
+
+    static final int WIN = 1_000_000;
+    static final int INFINITY = WIN + 1;
+    private static final int MAX_PLY = 1_000;
+
+    private static final int EXACT = 0, LOWER = 1, UPPER = 2;
+
+    private static final Side[] SIDES = Side.values();
+
+    private final TranspositionTable table;
+
+    // Состояние позиции, на которой идет перебор
+    private int side_x, side_y;
+    private boolean[] closed;
+    private int cat;
+    private long key;
+
+    // Рабочие массивы
+    private int[] offsets;
+    private int[] catMoves = new int[0];
+    private int[] queue;
+    private int[] visited;
+    private int stamp = 0;
+
+    private long nodes;
+    private long deadline;
+    private boolean aborted;
+
+    /**
+     * Создает поиск с таблицей транспозиций на 2^20 позиций.
+     */
+    public Solver() { this(20); }
+
+    /**
+     * Создает поиск с таблицей транспозиций заданного размера.
+     *
+     * @param tableBits Двоичный логарифм числа записей таблицы
+     * @throws IllegalArgumentException Если размер таблицы вне диапазона 1..30
+     */
+    public Solver(int tableBits) {
+        if (tableBits < 1 || tableBits > 30) throw new IllegalArgumentException("Размер таблицы должен быть от 2^1 до 2^30!");
+        table = new TranspositionTable(tableBits);
+    }
+
+    /**
+     * Создает поиск, который делит таблицу транспозиций с другими поисками.
+     *
+     * @param table общая таблица
+     */
+    Solver(TranspositionTable table) {
+        this.table = table;
+    }
+
+    /**
+     * Найти лучшую Ячейку для блокировки.
+     *
+     * @param field           Поле с Котом
+     * @param maxDepth        Максимальная глубина перебора в ходах (блокировка и ответ Кота)
+     * @param timeLimitMillis Ограничение времени; {@code 0} - без ограничения
+     *
+     * @throws NullPointerException     Если Поле пустое или на нем нет Кота
+     * @throws IllegalArgumentException Если глубина меньше единицы
+     */
+    public Result solve(Field field, int maxDepth, long timeLimitMillis) {
+        if (field == null) throw new NullPointerException("Невозможно искать ход без поля!");
+        if (field.getCat() == null) throw new NullPointerException("Невозможно искать ход без кота!");
+        if (maxDepth < 1) throw new IllegalArgumentException("Глубина поиска должна быть больше нуля!");
+
+        load(field);
+        prepare(maxDepth, timeLimitMillis > 0 ? System.nanoTime() + timeLimitMillis * 1_000_000 : Long.MAX_VALUE);
+
+        Result decided = decided();
+        if (decided != null) return decided;
+
+        int bestMove = -1, bestScore = 0, reached = 0;
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            GameEvents.SearchIteration event = GameEvents.searchStarted(side_x, side_y, depth, 1);
+            int move = -1, score = -INFINITY, alpha = -INFINITY;
+            int tableMove = probeMove();
+            for (int i = -1; i < offsets.length; i++) {
+                int cell = i < 0 ? tableMove : candidate(i);
+                if (cell < 0 || (i >= 0 && cell == tableMove)) continue;
+
+                int value = rootValue(cell, depth, alpha);
+                if (aborted) break;
+
+                if (value > score) {
+                    score = value;
+                    move = cell;
+                }
+                if (score > alpha) alpha = score;
+            }
+            GameEvents.searchFinished(event, nodes, score, move, aborted);
+            // Если время кончилось до конца первой итерации, берем лучший из просмотренных ходов
+            if (aborted) {
+                if (bestMove < 0) bestMove = move;
+                break;
+            }
+
+            store(depth, 0, score, EXACT, move);
+            bestMove = move;
+            bestScore = score;
+            reached = depth;
+            if (isDecided(score)) break;
+        }
+
+        return result(bestMove, bestScore, reached, nodes);
+    }
+
+    /**
+     * Скопировать состояние Поля
+     */
+    private void load(Field field) {
+        Board board = field.board();
+        Cell catCell = field.getCat().getCell();
+        if (catCell.board() != board) throw new IllegalArgumentException("Кот находится не на этом поле!");
+        load(board.getSideX(), board.getSideY(), snapshot(board), catCell.index());
+    }
+
+    /**
+     * Закрытые для Кота Ячейки хранилища
+     */
+    static boolean[] snapshot(Board board) {
+        boolean[] closedCells = new boolean[board.size()];
+        for (int i = 0; i < closedCells.length; i++) closedCells[i] = !board.isOpen(i);
+        return closedCells;
+    }
+
+    /**
+     * Загрузить позицию и подготовить рабочие массивы под размер Поля
+     *
+     * @param closedCells закрытые для Кота Ячейки
+     * @param catIndex    индекс Ячейки Кота
+     */
+    void load(int sideX, int sideY, boolean[] closedCells, int catIndex) {
+        if (closed == null || side_x != sideX || side_y != sideY) {
+            side_x = sideX;
+            side_y = sideY;
+            closed = new boolean[closedCells.length];
+            queue = new int[closedCells.length];
+            visited = new int[closedCells.length];
+            offsets = spiral(side_x, side_y);
+        }
+
+        // Размер Поля входит в ключ, чтобы общая таблица не путала Поля разных размеров
+        key = Zobrist.key(side_x << 16 | side_y, 1 << 7);
+        for (int i = 0; i < closed.length; i++) {
+            closed[i] = closedCells[i];
+            if (closed[i]) key ^= Zobrist.key(i, Board.BLOCKED);
+        }
+        cat = catIndex;
+        key ^= Zobrist.key(cat, Board.OCCUPIED);
+    }
+
+    /**
+     * Сбросить счетчики перед поиском
+     *
+     * @param maxDepth максимальная глубина
+     * @param deadline момент {@link System#nanoTime()}, после которого поиск прерывается
+     */
+    void prepare(int maxDepth, long deadline) {
+        if (catMoves.length < SIDES.length * (2 * maxDepth + 2)) catMoves = new int[SIDES.length * (2 * maxDepth + 2)];
+        nodes = 0;
+        aborted = false;
+        this.deadline = deadline;
+    }
+
+    /**
+     * Оценка одного хода из корня: блокировка Ячейки и перебор ответов Кота
+     *
+     * @param cell  Ячейка для блокировки
+     * @param depth глубина перебора
+     * @param alpha нижняя граница, которую ход должен превзойти
+     */
+    int rootValue(int cell, int depth, int alpha) {
+        close(cell);
+        int value = catReply(depth, 1, alpha, INFINITY);
+        open(cell);
+        return value;
+    }
+
+    /**
+     * Результат для позиции, итог которой известен без перебора, иначе {@code null}
+     */
+    Result decided() {
+        if (onBorder(cat)) return new Result(-1, -1, Outcome.CAT_WINS, -WIN, 0, 0);
+        if (!catCanMove() || escapeDistance() < 0) return new Result(-1, -1, Outcome.BLOCKER_WINS, WIN, 0, 0);
+        return null;
+    }
+
+    /**
+     * Ходы из корня в порядке перебора: от ближних к Коту Ячеек к дальним
+     */
+    int[] rootMoves() {
+        int[] moves = new int[closed.length];
+        int count = 0;
+        for (int i = 0; i < offsets.length; i++) {
+            int cell = candidate(i);
+            if (cell >= 0) moves[count++] = cell;
+        }
+        return Arrays.copyOf(moves, count);
+    }
+
+    /**
+     * Результат с ходом по индексу Ячейки
+     */
+    Result result(int move, int score, int depth, long nodes) {
+        if (move < 0) return new Result(-1, -1, outcome(score), score, depth, nodes);
+        return new Result(move % side_x, move / side_x, outcome(score), score, depth, nodes);
+    }
+
+    boolean isAborted() { return aborted; }
+    long getNodes() { return nodes; }
+
+    /**
+     * Итог по оценке позиции
+     */
+    static Outcome outcome(int score) {
+        return score > WIN - MAX_PLY ? Outcome.BLOCKER_WINS
+                : score < -WIN + MAX_PLY ? Outcome.CAT_WINS : Outcome.UNKNOWN;
+    }
+
+    /**
+     * Решена ли позиция, то есть является ли оценка выигрышем одной из сторон
+     */
+    static boolean isDecided(int score) { return Math.abs(score) > WIN - MAX_PLY; }
+
+    /**
+     * Смещения от Кота, упорядоченные по удаленности: сначала перебираются ближние Ячейки
+     */
+    private static int[] spiral(int sideX, int sideY) {
+        int width = 2 * sideX - 1, height = 2 * sideY - 1;
+        Integer[] order = new Integer[width * height];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Integer.compare(
+                Math.abs(a % width - sideX + 1) + Math.abs(a / width - sideY + 1),
+                Math.abs(b % width - sideX + 1) + Math.abs(b / width - sideY + 1)));
+
+        int[] offsets = new int[order.length - 1];
+        for (int i = 1; i < order.length; i++) {
+            int dx = order[i] % width - sideX + 1, dy = order[i] / width - sideY + 1;
+            offsets[i - 1] = (dx + 0x8000) << 16 | (dy + 0x8000);
+        }
+        return offsets;
+    }
+
+    /**
+     * Ячейка-кандидат на блокировку по номеру смещения от Кота или {@code -1}
+     */
+    private int candidate(int i) {
+        int dx = (offsets[i] >>> 16) - 0x8000, dy = (offsets[i] & 0xFFFF) - 0x8000;
+        int x = cat % side_x + dx, y = cat / side_x + dy;
+        if (x < 0 || y < 0 || x >= side_x || y >= side_y) return -1;
+        int cell = y * side_x + x;
+        return closed[cell] ? -1 : cell;
+    }
+
+    /**
+     * Ход блокирующего игрока
+     */
+    private int search(int depth, int ply, int alpha, int beta) {
+        if (++nodes % 1024 == 0 && System.nanoTime() > deadline) aborted = true;
+        if (aborted) return 0;
+        if (!catCanMove()) return WIN - ply;
+        if (depth == 0) return evaluate(ply);
+
+        int tableMove = -1;
+        long entry = table.probe(key);
+        if (entry != 0) {
+            int score = fromTable((int) entry, ply);
+            int entryDepth = (int) (entry >>> 32) & 0xFF;
+            int flag = (int) (entry >>> 40) & 0x3;
+            tableMove = (int) (entry >>> 42) - 1;
+            if (entryDepth >= depth) {
+                if (flag == EXACT) return score;
+                if (flag == LOWER && score >= beta) return score;
+                if (flag == UPPER && score <= alpha) return score;
+            }
+        }
+
+        int originalAlpha = alpha;
+        int best = -INFINITY, bestMove = -1;
+        for (int i = -1; i < offsets.length; i++) {
+            int cell = i < 0 ? tableMove : candidate(i);
+            if (cell < 0 || (i >= 0 && cell == tableMove) || closed[cell]) continue;
+
+            close(cell);
+            int value = catReply(depth, ply + 1, alpha, beta);
+            open(cell);
+            if (aborted) return 0;
+
+            if (value > best) {
+                best = value;
+                bestMove = cell;
+            }
+            if (best > alpha) alpha = best;
+            if (alpha >= beta) break;
+        }
+        if (bestMove < 0) return evaluate(ply);
+
+        int flag = best <= originalAlpha ? UPPER : best >= beta ? LOWER : EXACT;
+        store(depth, ply, best, flag, bestMove);
+        return best;
+    }
+
+    /**
+     * Ответ Кота на блокировку: Кот выбирает ход, худший для блокирующего игрока.<br>
+     * Ходы перебираются по возрастанию расстояния до края: сначала самые опасные.
+     */
+    private int catReply(int depth, int ply, int alpha, int beta) {
+        int base = ply * SIDES.length, count = 0;
+        int x = cat % side_x, y = cat / side_x;
+        for (Side side : SIDES) {
+            int next = step(x, y, side);
+            if (next < 0 || closed[next]) continue;
+            int rank = borderRank(next), j = count++;
+            while (j > 0 && borderRank(catMoves[base + j - 1]) > rank) {
+                catMoves[base + j] = catMoves[base + j - 1];
+                j--;
+            }
+            catMoves[base + j] = next;
+        }
+        if (count == 0) return WIN - ply;
+
+        int best = INFINITY;
+        for (int i = 0; i < count; i++) {
+            int next = catMoves[base + i];
+            int from = cat;
+            moveCat(next);
+            int value = onBorder(next) ? -WIN + ply : search(depth - 1, ply + 1, alpha, beta);
+            moveCat(from);
+            if (aborted) return 0;
+
+            if (value < best) best = value;
+            if (best < beta) beta = best;
+            if (alpha >= beta) break;
+        }
+        return best;
+    }
+
+    private int borderRank(int cell) {
+        int x = cell % side_x, y = cell / side_x;
+        return Math.min(Math.min(x, side_x - 1 - x), Math.min(y, side_y - 1 - y));
+    }
+
+    private int step(int x, int y, Side side) {
+        return switch (side) {
+            case LEFT -> x > 0 ? cat - 1 : -1;
+            case RIGHT -> x < side_x - 1 ? cat + 1 : -1;
+            case TOP -> y > 0 ? cat - side_x : -1;
+            case BOTTOM -> y < side_y - 1 ? cat + side_x : -1;
+        };
+    }
+
+    /**
+     * Оценка позиции для блокирующего игрока: чем дальше Кот от края, тем лучше
+     */
+    private int evaluate(int ply) {
+        int distance = escapeDistance();
+        if (distance < 0) return WIN - ply;
+        int moves = 0;
+        int x = cat % side_x, y = cat / side_x;
+        for (Side side : SIDES) {
+            int next = step(x, y, side);
+            if (next >= 0 && !closed[next]) moves++;
+        }
+        return distance * 8 - moves;
+    }
+
+    /**
+     * Расстояние от Кота до края Поля обходом в ширину или {@code -1}, если выхода нет
+     */
+    private int escapeDistance() {
+        if (++stamp == 0) {
+            Arrays.fill(visited, 0);
+            stamp = 1;
+        }
+        int head = 0, tail = 0, levelEnd = 1, level = 0;
+        visited[cat] = stamp;
+        queue[tail++] = cat;
+        while (head < tail) {
+            if (head == levelEnd) {
+                level++;
+                levelEnd = tail;
+            }
+            int current = queue[head++];
+            if (onBorder(current)) return level;
+            int x = current % side_x, y = current / side_x;
+            if (x > 0) tail = visit(current - 1, tail);
+            if (x < side_x - 1) tail = visit(current + 1, tail);
+            if (y > 0) tail = visit(current - side_x, tail);
+            if (y < side_y - 1) tail = visit(current + side_x, tail);
+        }
+        return -1;
+    }
+
+    private int visit(int cell, int tail) {
+        if (closed[cell] || visited[cell] == stamp) return tail;
+        visited[cell] = stamp;
+        queue[tail] = cell;
+        return tail + 1;
+    }
+
+    private boolean catCanMove() {
+        int x = cat % side_x, y = cat / side_x;
+        for (Side side : SIDES) {
+            int next = step(x, y, side);
+            if (next >= 0 && !closed[next]) return true;
+        }
+        return false;
+    }
+
+    private boolean onBorder(int cell) {
+        int x = cell % side_x, y = cell / side_x;
+        return x == 0 || y == 0 || x == side_x - 1 || y == side_y - 1;
+    }
+
+    private void close(int cell) {
+        closed[cell] = true;
+        key ^= Zobrist.key(cell, Board.BLOCKED);
+    }
+
+    private void open(int cell) {
+        closed[cell] = false;
+        key ^= Zobrist.key(cell, Board.BLOCKED);
+    }
+
+    private void moveCat(int cell) {
+        key ^= Zobrist.key(cat, Board.OCCUPIED) ^ Zobrist.key(cell, Board.OCCUPIED);
+        cat = cell;
+    }
+
+    private int probeMove() {
+        long entry = table.probe(key);
+        if (entry == 0) return -1;
+        int move = (int) (entry >>> 42) - 1;
+        return move >= 0 && !closed[move] ? move : -1;
+    }
+
+    private void store(int depth, int ply, int score, int flag, int move) {
+        if (aborted) return;
+        table.store(key, (toTable(score, ply) & 0xFFFFFFFFL)
+                | (long) Math.min(depth, 0xFF) << 32
+                | (long) flag << 40
+                | (long) (move + 1) << 42);
+    }
+
+    // Оценки выигрыша хранятся относительно узла, а не корня
+    private static int toTable(int score, int ply) {
+        if (score > WIN - MAX_PLY) return score + ply;
+        if (score < -WIN + MAX_PLY) return score - ply;
+        return score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score > WIN - MAX_PLY) return score - ply;
+        if (score < -WIN + MAX_PLY) return score + ply;
+        return score;
+    }
+}
@@ -0,0 +1,225 @@
+package items;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Трансляция партии зрителям по TCP.<br>
+ * Поток игры после каждого хода вызывает {@link #publish()}: изменения Поля упаковываются
+ * в кадр {@link ChangeLog} один раз и ставятся в очередь каждого зрителя. Один поток
+ * с {@link Selector} отправляет очереди неблокирующей записью.
+ * <p>
+ * Если зритель не успевает читать и его очередь превышает предел, очередь сбрасывается,
+ * а при следующей публикации зритель получает полный снимок вместо пропущенных изменений.
+ * Новый зритель также получает снимок при следующей публикации.
+ */
+public class SpectatorServer implements AutoCloseable {
+    private final ChangeLog changeLog;
+    private final int maxPending;
+    private final ServerSocketChannel server;
+    private final Selector selector;
+    private final Set<Spectator> spectators = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean resync = new AtomicBoolean(false);
+
+    /**
+     * Зритель и его очередь кадров
+     */
+    private final class Spectator {
+        private final SocketChannel channel;
+        private final ArrayDeque<ByteBuffer> queue = new ArrayDeque<>();
+        private SelectionKey key;
+        private int pending = 0;
+        private boolean synced = false;
+
+        Spectator(SocketChannel channel) { this.channel = channel; }
+
+        /**
+         * Поставить кадр в очередь
+         *
+         * @return {@code true}, если появились данные для отправки
+         */
+        synchronized boolean offer(byte[] delta, byte[] snapshot) {
+            byte[] frame = synced ? delta : snapshot;
+            if (frame == null) return false;
+            if (pending > 0 && pending + frame.length > maxPending) {
+                // Начатый кадр нужно дослать, иначе поток кадров у зрителя разорвется
+                ByteBuffer head = queue.peek();
+                queue.clear();
+                pending = 0;
+                if (head.position() > 0) {
+                    queue.add(head);
+                    pending = head.remaining();
+                }
+                synced = false;
+                resync.set(true);
+                return false;
+            }
+            queue.add(ByteBuffer.wrap(frame));
+            pending += frame.length;
+            synced = true;
+            return true;
+        }
+
+        synchronized boolean hasPending() { return pending > 0; }
+
+        /**
+         * Отправить сколько получится без блокировки
+         *
+         * @return {@code true}, если очередь опустела
+         */
+        synchronized boolean flush() throws IOException {
+            while (!queue.isEmpty()) {
+                ByteBuffer head = queue.peek();
+                pending -= channel.write(head);
+                if (head.hasRemaining()) return false;
+                queue.poll();
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Запускает трансляцию на локальном адресе.
+     *
+     * @param field      Поле транслируемой партии
+     * @param port       Порт; {@code 0} - любой свободный
+     * @param maxPending Предел неотправленных байт на зрителя
+     *
+     * @throws NullPointerException     Если Поле пустое
+     * @throws IllegalArgumentException Если предел меньше единицы
+     * @throws UncheckedIOException     Если порт занят
+     */
+    public SpectatorServer(Field field, int port, int maxPending) {
+        if (field == null) throw new NullPointerException("Трансляция невозможна без поля!");
+        if (maxPending < 1) throw new IllegalArgumentException("Предел очереди должен быть больше нуля!");
+        this.changeLog = field.getChangeLog();
+        this.maxPending = maxPending;
+        try {
+            selector = Selector.open();
+            server = ServerSocketChannel.open();
+            server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 4096);
+            server.configureBlocking(false);
+            server.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось запустить трансляцию!", e);
+        }
+        Thread.ofPlatform().name("spectator-server").daemon().start(this::loop);
+    }
+
+    public int getPort() { return server.socket().getLocalPort(); }
+
+    /**
+     * Число подключенных зрителей
+     */
+    public int getSpectators() { return spectators.size(); }
+
+    /**
+     * Разослать изменения Поля после прошлой публикации.<br>
+     * Вызывается потоком, который меняет Поле.
+     */
+    public void publish() {
+        byte[] delta = changeLog.delta();
+        byte[] snapshot = null;
+        if (delta != null && ChangeLog.isSnapshot(delta)) snapshot = delta;
+        else if (resync.getAndSet(false)) snapshot = changeLog.snapshot();
+        if (delta == null && snapshot == null) return;
+
+        boolean queued = false;
+        for (Spectator spectator : spectators) queued |= spectator.offer(delta, snapshot);
+        if (queued) selector.wakeup();
+    }
+
+    /**
+     * Остановить трансляцию и отключить зрителей
+     */
+    @Override
+    public void close() {
+        try {
+            selector.close();
+            server.close();
+            for (Spectator spectator : spectators) spectator.channel.close();
+        } catch (IOException ignored) {
+        }
+        spectators.clear();
+    }
+
+    private void loop() {
+        ByteBuffer discard = ByteBuffer.allocate(256);
+        try {
+            while (selector.isOpen()) {
+                selector.select();
+                for (Spectator spectator : spectators) {
+                    if (!spectator.hasPending()) continue;
+                    try {
+                        spectator.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                    } catch (CancelledKeyException e) {
+                        disconnect(spectator);
+                    }
+                }
+
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) continue;
+                    if (key.isAcceptable()) accept();
+                    else handle(key, (Spectator) key.attachment(), discard);
+                }
+            }
+        } catch (ClosedSelectorException ignored) {
+            // Трансляция остановлена
+        } catch (IOException e) {
+            if (selector.isOpen()) throw new UncheckedIOException(e);
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = server.accept();
+        if (channel == null) return;
+        channel.configureBlocking(false);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        Spectator spectator = new Spectator(channel);
+        spectator.key = channel.register(selector, SelectionKey.OP_READ, spectator);
+        spectators.add(spectator);
+        resync.set(true);
+    }
+
+    private void handle(SelectionKey key, Spectator spectator, ByteBuffer discard) {
+        try {
+            if (key.isReadable()) {
+                discard.clear();
+                if (spectator.channel.read(discard) < 0) {
+                    disconnect(spectator);
+                    return;
+                }
+            }
+            if (key.isWritable() && spectator.flush()) key.interestOps(SelectionKey.OP_READ);
+        } catch (IOException | CancelledKeyException e) {
+            disconnect(spectator);
+        }
+    }
+
+    private void disconnect(Spectator spectator) {
+        spectators.remove(spectator);
+        spectator.key.cancel();
+        try {
+            spectator.channel.close();
+        } catch (IOException ignored) {
+        }
+    }
+}
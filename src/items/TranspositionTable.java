@@ -0,0 +1,39 @@
+package items;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Таблица транспозиций для перебора позиций.<br>
+ * Одну таблицу могут без блокировок делить несколько потоков: в ячейке хранится запись
+ * и ключ, сложенный с ней по XOR. Если запись и ключ прочитаны от разных вставок,
+ * проверка ключа не пройдет, и такая запись считается отсутствующей.
+ */
+final class TranspositionTable {
+    private final AtomicLongArray keys;
+    private final AtomicLongArray entries;
+    private final int mask;
+
+    /**
+     * @param bits Двоичный логарифм числа записей
+     */
+    TranspositionTable(int bits) {
+        keys = new AtomicLongArray(1 << bits);
+        entries = new AtomicLongArray(1 << bits);
+        mask = (1 << bits) - 1;
+    }
+
+    /**
+     * Запись для позиции или {@code 0}, если ее нет
+     */
+    long probe(long key) {
+        int index = (int) key & mask;
+        long entry = entries.getOpaque(index);
+        return (keys.getOpaque(index) ^ entry) == key ? entry : 0;
+    }
+
+    void store(long key, long entry) {
+        int index = (int) key & mask;
+        entries.setOpaque(index, entry);
+        keys.setOpaque(index, key ^ entry);
+    }
+}
@@ -1,21 +1,21 @@
 package items;
 import javax.swing.*;
 import java.awt.*;
-import java.awt.event.MouseAdapter;
-import java.awt.event.MouseEvent;
-import java.util.List;
-import java.util.Random;
 
 public class UI extends JFrame {
-    private static final int CELL_SIZE = 60;
-    private final Field field;
-    private final JPanel gamePanel;
+    private final Game game;
     private final JLabel statusLabel;
-    private boolean gameStarted = false;
-    private boolean gameEnded = false;
 
-    public UI(Field field) {
-        this.field = field;
+    public UI(Game game) { this(game, false); }
+
+    /**
+     * Создает окно игры.
+     *
+     * @param game     Партия
+     * @param animated Рисовать Поле в отдельном потоке с анимацией хода Кота
+     */
+    public UI(Game game, boolean animated) {
+        this.game = game;
         setTitle("Поймай кота!");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setLayout(new BorderLayout());
@@ -24,177 +24,62 @@ public class UI extends JFrame {
         statusLabel.setFont(new Font("Arial", Font.BOLD, 16));
         add(statusLabel, BorderLayout.NORTH);
 
-        gamePanel = new JPanel() {
-            @Override
-            protected void paintComponent(Graphics g) {
-                super.paintComponent(g);
-                drawField(g);
-            }
-        };
-        gamePanel.setLayout(new GridLayout(field.getSideY(), field.getSideX()));
-        gamePanel.setPreferredSize(new Dimension(field.getSideX() * CELL_SIZE, field.getSideY() * CELL_SIZE));
-
-        for (int y = 0; y < field.getSideY(); y++) {
-            for (int x = 0; x < field.getSideX(); x++) {
-                JPanel cellPanel = new JPanel();
-                cellPanel.setBorder(BorderFactory.createLineBorder(Color.BLACK));
-                cellPanel.setBackground(Color.WHITE);
-
-                final int cellX = x;
-                final int cellY = y;
-
-                cellPanel.addMouseListener(new MouseAdapter() {
-                    @Override
-                    public void mouseClicked(MouseEvent e) {
-                        handleCellClick(cellX, cellY);
-                    }
-                });
-
-                gamePanel.add(cellPanel);
-            }
-        }
-
-        add(gamePanel, BorderLayout.CENTER);
+        Dimension screen = Toolkit.getDefaultToolkit().getScreenSize();
+        int zoom = BoardView.fittingZoom(game.getField(), screen.width * 3 / 4, screen.height * 3 / 4);
+        if (animated) add(new AnimatedBoardView(game.getField(), BoardView.ZOOM[zoom], this::handleCellClick), BorderLayout.CENTER);
+        else add(new JScrollPane(new BoardView(game.getField(), zoom, this::handleCellClick)), BorderLayout.CENTER);
 
+        JButton undoButton = new JButton("Отменить ход");
+        undoButton.addActionListener(e -> {
+            if (game.undo()) showStatus();
+        });
+        JButton redoButton = new JButton("Повторить ход");
+        redoButton.addActionListener(e -> {
+            if (game.redo()) showStatus();
+        });
         JButton restartButton = new JButton("Новая игра");
         restartButton.addActionListener(e -> resetGame());
-        add(restartButton, BorderLayout.SOUTH);
+        JPanel buttons = new JPanel();
+        buttons.add(undoButton);
+        buttons.add(redoButton);
+        buttons.add(restartButton);
+        add(buttons, BorderLayout.SOUTH);
 
         pack();
         setLocationRelativeTo(null);
     }
 
-    private void drawField(Graphics g) {
-        for (Cell cell : field.getCells()) {
-            int x = cell.X() * CELL_SIZE;
-            int y = cell.Y() * CELL_SIZE;
-
-            if (cell.isBlocked()) {
-                g.setColor(Color.GRAY);
-                g.fillRect(x, y, CELL_SIZE, CELL_SIZE);
-            } else if (cell.isFrozen()) {
-                g.setColor(Color.BLUE);
-                g.fillRect(x, y, CELL_SIZE, CELL_SIZE);
-            } else {
-                g.setColor(Color.WHITE);
-                g.fillRect(x, y, CELL_SIZE, CELL_SIZE);
-            }
-
-            g.setColor(Color.BLACK);
-            g.drawRect(x, y, CELL_SIZE, CELL_SIZE);
-
-            if (cell.isOccupied() && field.getCat() != null) {
-                g.setColor(Color.ORANGE);
-                g.fillOval(x + 5, y + 5, CELL_SIZE - 10, CELL_SIZE - 10);
-                g.setColor(Color.BLACK);
-                g.drawString("Кот", x + CELL_SIZE / 2 - 10, y + CELL_SIZE / 2);
-            }
-        }
-    }
-
     private void handleCellClick(int x, int y) {
-        if (!gameStarted && !gameEnded) {
-            for (Cell cell : field.getCells()) {
-                if (cell.X() == x && cell.Y() == y) {
-                    Cat cat = new Cat(cell);
-                    field.setCat(cat);
-                    gameStarted = true;
-                    statusLabel.setText("Игра началась! Блокируйте клетки вокруг кота");
-                    drawField(gamePanel.getGraphics());
-                    return;
-                }
-            }
-        } else if (!gameEnded) {
-            for (Cell cell : field.getCells()) {
-                if (cell.X() == x && cell.Y() == y && !cell.isOccupied()) {
-                    cell.block(true);
-                    drawField(gamePanel.getGraphics());
-                    checkGameStatus();
-                    moveCat();
-                    return;
-                }
-            }
-        }
-    }
-
-    //TODO написать алгоритм перемещения и нахождения пути проще
-    private void moveCat() {
-        if (field.getCat() == null) return;
-
-        Side[] possibleMoves = Side.values();
-        Random random = new Random();
-
-        for (int i = 0; i < 10; i++) {
-            Side move = possibleMoves[random.nextInt(possibleMoves.length)];
-            Cell nextCell = field.getCat().getCell().getNeighbor(move);
+        if (game.canPlaceCat(x, y)) {
+            game.placeCat(x, y);
+        } else if (game.canBlock(x, y)) {
+            game.block(x, y);
+        } else return;
 
-            if (nextCell != null && !nextCell.isBlocked() && !nextCell.isFrozen()) {
-                field.getCat().move(move);
-                drawField(gamePanel.getGraphics());
-                checkGameStatus();
-                return;
-            }
-        }
+        showStatus();
     }
 
-    private void checkGameStatus() {
-        if (field.isCatOnBorder()) {
-            statusLabel.setText("Вы проиграли! Кот сбежал.");
-            gameEnded = true;
-        } else if (field.isCatClosed()) {
-            statusLabel.setText("Поздравляем! Вы поймали кота!");
-            gameEnded = true;
+    private void showStatus() {
+        switch (game.getStatus()) {
+            case NOT_STARTED -> statusLabel.setText("Выберите начальную позицию кота");
+            case IN_PROGRESS -> statusLabel.setText("Игра началась! Блокируйте клетки вокруг кота");
+            case CAT_ESCAPED -> statusLabel.setText("Вы проиграли! Кот сбежал.");
+            case CAT_CAUGHT -> statusLabel.setText("Поздравляем! Вы поймали кота!");
         }
     }
 
     private void resetGame() {
-        for (Cell cell : field.getCells()) {
-            cell.block(false);
-            cell.freeze(false);
-            cell.unsetCat();
-        }
-        field.cat = null;
-        gameStarted = false;
-        gameEnded = false;
-        statusLabel.setText("Выберите начальную позицию кота");
-        drawField(gamePanel.getGraphics());
+        game.reset(null);
+        showStatus();
     }
 
     public static void main(String[] args) {
-        int sideX = 10;
-        int sideY = 10;
-        List<Cell> cells = new java.util.ArrayList<>();
-
-        for (int y = 0; y < sideY; y++) {
-            for (int x = 0; x < sideX; x++) {
-                cells.add(new Cell(x, y));
-            }
-        }
-
-        for (Cell cell : cells) {
-            int x = cell.X();
-            int y = cell.Y();
-
-            if (x > 0) cell.setNeighbor(Side.LEFT, getCell(cells, x - 1, y));
-            if (x < sideX - 1) cell.setNeighbor(Side.RIGHT, getCell(cells, x + 1, y));
-            if (y > 0) cell.setNeighbor(Side.TOP, getCell(cells, x, y - 1));
-            if (y < sideY - 1) cell.setNeighbor(Side.BOTTOM, getCell(cells, x, y + 1));
-        }
-
-        Field field = new Field(cells, sideX, sideY);
+        Game game = new Game(Field.rectangle(10, 10), true);
+        boolean animated = args.length > 0 && args[0].equals("--animated");
 
         SwingUtilities.invokeLater(() -> {
-            UI UI = new UI(field);
+            UI UI = new UI(game, animated);
             UI.setVisible(true);
         });
     }
-
-    private static Cell getCell(List<Cell> cells, int x, int y) {
-        for (Cell cell : cells) {
-            if (cell.X() == x && cell.Y() == y) {
-                return cell;
-            }
-        }
-        return null;
-    }
 }
\ No newline at end of file
@@ -0,0 +1,54 @@
+package items;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Целые числа переменной длины: по 7 бит в байте, старший бит - признак продолжения.<br>
+ * Числа меньше 128 занимают один байт.
+ */
+final class Varint {
+    private Varint() {}
+
+    /**
+     * Число байт записи неотрицательного числа
+     */
+    static int size(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    /**
+     * Записать число в массив
+     *
+     * @return Позиция после записанного числа
+     */
+    static int write(byte[] buffer, int position, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer[position++] = (byte) (value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+        return position;
+    }
+
+    /**
+     * Прочитать число из буфера
+     *
+     * @throws BufferUnderflowException Если запись числа обрывается
+     * @throws IllegalArgumentException Если запись длиннее пяти байт
+     */
+    static int read(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+        throw new IllegalArgumentException("Слишком длинное число!");
+    }
+}
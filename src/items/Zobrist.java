@@ -0,0 +1,37 @@
+package items;
+
+/**
+ * Ключи Зобриста для состояния Ячеек.<br>
+ * Ключ вычисляется перемешиванием индекса Ячейки и флага, поэтому таблицы ключей
+ * не хранятся, а одинаковые позиции на Полях одного размера получают одинаковый хеш.
+ */
+final class Zobrist {
+    private Zobrist() {}
+
+    /**
+     * Ключ флага Ячейки
+     *
+     * @param index индекс Ячейки
+     * @param flag  флаг состояния ({@link Board#BLOCKED}, {@link Board#FROZEN} и т.д.)
+     */
+    static long key(int index, int flag) {
+        long z = (index * 8L + Integer.numberOfTrailingZeros(flag)) * 0x9E3779B97F4A7C15L + 0x632BE59BD9B4E019L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Изменение хеша при смене флагов Ячейки
+     */
+    static long delta(int index, byte oldState, byte newState) {
+        int changed = (oldState ^ newState) & 0xFF;
+        long delta = 0;
+        while (changed != 0) {
+            int flag = changed & -changed;
+            delta ^= key(index, flag);
+            changed ^= flag;
+        }
+        return delta;
+    }
+}
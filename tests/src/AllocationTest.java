@@ -0,0 +1,82 @@
+import items.Field;
+import items.Game;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class AllocationTest {
+    private static final int WARMUP = 3_000;
+    private static final int GAMES = 1_000;
+    private static final int ROUNDS = 3;
+
+    /**
+     * Счетчик выделенной текущим потоком памяти
+     */
+    private static com.sun.management.ThreadMXBean allocations() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+        return threads;
+    }
+
+    /**
+     * Сыграть партии и проверить, что ходы не выделяют память.<br>
+     * После прогрева играется до {@link #ROUNDS} раундов по {@link #GAMES} партий: фоновая
+     * компиляция изредка выделяет память в потоке теста, поэтому достаточно одного чистого раунда.
+     *
+     * @param setUp подготовка партии, не измеряется
+     * @param play  ходы партии
+     */
+    private static void assertNoAllocation(Game game, Runnable setUp, Runnable play) {
+        com.sun.management.ThreadMXBean threads = allocations();
+        long thread = Thread.currentThread().threadId();
+
+        long bytes = 0, turns = 0;
+        for (int round = 0; round <= ROUNDS; round++) {
+            bytes = 0;
+            turns = 0;
+            for (int i = 0; i < (round == 0 ? WARMUP : GAMES); i++) {
+                setUp.run();
+                long before = threads.getThreadAllocatedBytes(thread);
+                play.run();
+                long after = threads.getThreadAllocatedBytes(thread);
+                bytes += after - before;
+                turns += game.getTurns();
+            }
+            if (round > 0 && bytes == 0) break;
+        }
+        assertTrue(turns > GAMES);
+        assertEquals(0, bytes, "Байт на ход: " + (double) bytes / turns);
+    }
+
+    @Test
+    public void strategyTurnsDoNotAllocate() {
+        Game game = new Game(Field.rectangle(31, 31), Game.SHORTEST_PATH, Game.BLOCK_NEXT_STEP);
+        assertNoAllocation(game, () -> {
+            game.reset(null);
+            game.placeCat(15, 15);
+        }, game::start);
+    }
+
+    @Test
+    public void manualTurnsDoNotAllocate() {
+        Game game = new Game(Field.rectangle(41, 41));
+        assertNoAllocation(game, () -> {
+            game.reset(null);
+            game.placeCat(20, 20);
+        }, () -> {
+            // Блокируем Ячейки с постоянным шагом по строкам и столбцам, пока партия не кончится
+            int cell = 0;
+            while (game.getStatus() == Game.Status.IN_PROGRESS) {
+                int x = cell * 7 % 41, y = cell * 13 % 41;
+                cell++;
+                if (game.canBlock(x, y)) game.block(x, y);
+            }
+        });
+    }
+}
@@ -0,0 +1,176 @@
+import items.BorderDistances;
+import items.Cat;
+import items.Cell;
+import items.Field;
+import items.Side;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BorderDistancesTest {
+    // Вспомогательный метод: Поле с тем же состоянием Ячеек, но с картой, построенной с нуля
+    private Field copyField(Field field) {
+        Field copy = Field.rectangle(field.getSideX(), field.getSideY());
+        for (int y = 0; y < field.getSideY(); y++) {
+            for (int x = 0; x < field.getSideX(); x++) {
+                Cell cell = field.cellAt(x, y);
+                if (cell.isDestroyed()) copy.cellAt(x, y).destroy();
+                else {
+                    copy.cellAt(x, y).block(cell.isBlocked());
+                    copy.cellAt(x, y).freeze(cell.isFrozen());
+                }
+            }
+        }
+        return copy;
+    }
+
+    private void assertSameDistances(Field expected, Field actual) {
+        for (int y = 0; y < expected.getSideY(); y++) {
+            for (int x = 0; x < expected.getSideX(); x++) {
+                assertEquals(expected.getBorderDistances().distance(x, y),
+                        actual.getBorderDistances().distance(x, y), "x = " + x + ", y = " + y);
+            }
+        }
+    }
+
+    @Test
+    public void distancesOnEmptyField() {
+        BorderDistances distances = Field.rectangle(7, 5).getBorderDistances();
+
+        assertEquals(0, distances.distance(0, 0));
+        assertEquals(0, distances.distance(6, 3));
+        assertEquals(1, distances.distance(1, 2));
+        assertEquals(2, distances.distance(3, 2));
+        assertEquals(-1, distances.distance(7, 0));
+    }
+
+    @Test
+    public void blockedCellIsUnreachable() {
+        Field field = Field.rectangle(5, 5);
+        field.cellAt(2, 2).block(true);
+        assertEquals(-1, field.getBorderDistances().distance(2, 2));
+    }
+
+    @Test
+    public void blockingUpdatesDistances() {
+        Field field = Field.rectangle(5, 7);
+        BorderDistances distances = field.getBorderDistances();
+        field.cellAt(1, 3).block(true);
+        field.cellAt(3, 3).block(true);
+        field.cellAt(2, 2).block(true);
+        assertEquals(3, distances.distance(2, 3));
+
+        field.cellAt(2, 4).freeze(true);
+        assertEquals(-1, distances.distance(2, 3));
+
+        field.cellAt(2, 4).freeze(false);
+        assertEquals(3, distances.distance(2, 3));
+    }
+
+    @Test
+    public void destroyingUpdatesDistances() {
+        Field field = Field.rectangle(5, 5);
+        BorderDistances distances = field.getBorderDistances();
+        field.cellAt(1, 2).destroy();
+        field.cellAt(3, 2).destroy();
+        field.cellAt(2, 1).destroy();
+
+        assertEquals(2, distances.distance(2, 2));
+        assertEquals(-1, distances.distance(1, 2));
+    }
+
+    @Test
+    public void resetRebuildsDistances() {
+        Field field = Field.rectangle(5, 5);
+        BorderDistances distances = field.getBorderDistances();
+        field.cellAt(2, 1).block(true);
+
+        boolean[] obstacles = new boolean[25];
+        obstacles[7] = true;
+        field.reset(obstacles);
+
+        assertEquals(2, distances.distance(2, 2));
+        assertEquals(-1, distances.distance(2, 1));
+    }
+
+    @Test
+    public void incrementalDistancesMatchFullRebuild() {
+        Random random = new Random(42);
+        Field field = Field.rectangle(15, 12);
+        field.getBorderDistances();
+
+        for (int i = 0; i < 400; i++) {
+            Cell cell = field.cellAt(random.nextInt(15), random.nextInt(12));
+            if (cell.isDestroyed()) continue;
+            switch (random.nextInt(5)) {
+                case 0, 1 -> cell.block(!cell.isBlocked());
+                case 2, 3 -> cell.freeze(!cell.isFrozen());
+                default -> {
+                    if (random.nextInt(8) == 0) cell.destroy();
+                }
+            }
+            if (i % 20 == 0) assertSameDistances(copyField(field), field);
+        }
+        assertSameDistances(copyField(field), field);
+    }
+
+    @Test
+    public void nextMoveFollowsDistances() {
+        Field field = Field.rectangle(7, 7);
+        field.setCat(new Cat(field.cellAt(3, 4)));
+        field.cellAt(3, 5).block(true);
+
+        Side move = field.getBorderDistances().nextMove();
+        assertTrue(move == Side.LEFT || move == Side.RIGHT);
+    }
+
+    @Test
+    public void nextMoveWhenCatOnBorder() {
+        Field field = Field.rectangle(5, 5);
+        field.setCat(new Cat(field.cellAt(4, 2)));
+        assertNull(field.getBorderDistances().nextMove());
+    }
+
+    @Test
+    public void nextMoveInsideClosedPocket() {
+        Field field = Field.rectangle(5, 5);
+        field.setCat(new Cat(field.cellAt(2, 2)));
+        field.cellAt(1, 2).block(true);
+        field.cellAt(3, 2).block(true);
+        field.cellAt(2, 1).block(true);
+        field.cellAt(1, 3).block(true);
+        field.cellAt(3, 3).block(true);
+        field.cellAt(2, 4).block(true);
+
+        assertEquals(Side.BOTTOM, field.getBorderDistances().nextMove());
+    }
+
+    @Test
+    public void nextMoveWhenCatClosed() {
+        Field field = Field.rectangle(5, 5);
+        field.setCat(new Cat(field.cellAt(2, 2)));
+        for (Side side : Side.values()) {
+            field.getCat().getCell().getNeighbor(side).block(true);
+        }
+
+        assertNull(field.getBorderDistances().nextMove());
+    }
+
+    @Test
+    public void followingMovesLeadCatToBorder() {
+        Field field = Field.rectangle(9, 9);
+        field.setCat(new Cat(field.cellAt(4, 4)));
+        field.cellAt(4, 3).block(true);
+
+        int moves = 0;
+        Side move;
+        while ((move = field.getBorderDistances().nextMove()) != null) {
+            field.getCat().move(move);
+            moves++;
+        }
+        assertTrue(field.isCatOnBorder());
+        assertEquals(4, moves);
+    }
+}
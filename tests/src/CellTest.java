@@ -247,4 +247,15 @@ public class CellTest {
         assertEquals(newCat, newCell.getCat());
         assertTrue(newCell.isOccupied());
     }
+
+    @Test
+    public void hashCodeEqualForEqualCells() {
+        Cell first = new Cell(2, 3);
+        Cell second = new Cell(2, 3);
+        first.block(true);
+        second.block(true);
+
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,153 @@
+import items.BoardReplica;
+import items.Cat;
+import items.ChangeLog;
+import items.Field;
+import items.Side;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChangeLogTest {
+    private void assertSameField(Field field, BoardReplica replica) {
+        assertEquals(field.getSideX(), replica.getSideX());
+        assertEquals(field.getSideY(), replica.getSideY());
+        for (int y = 0; y < field.getSideY(); y++) {
+            for (int x = 0; x < field.getSideX(); x++) {
+                assertEquals(field.cellAt(x, y).isBlocked(), replica.isBlocked(x, y));
+                assertEquals(field.cellAt(x, y).isFrozen(), replica.isFrozen(x, y));
+                assertEquals(field.cellAt(x, y).isDestroyed(), replica.isDestroyed(x, y));
+                assertEquals(field.cellAt(x, y).isOccupied(), replica.isOccupied(x, y));
+            }
+        }
+    }
+
+    @Test
+    public void noChangesNoFrame() {
+        ChangeLog log = Field.rectangle(5, 5).getChangeLog();
+        assertFalse(log.hasChanges());
+        assertNull(log.delta());
+    }
+
+    @Test
+    public void blockCostsFewBytes() {
+        Field field = Field.rectangle(11, 11);
+        ChangeLog log = field.getChangeLog();
+        field.cellAt(3, 4).block(true);
+
+        assertTrue(log.hasChanges());
+        byte[] frame = log.delta();
+        assertTrue(frame.length <= 5);
+        assertFalse(log.hasChanges());
+    }
+
+    @Test
+    public void catMoveCostsFewBytes() {
+        Field field = Field.rectangle(11, 11);
+        Cat cat = new Cat(field.cellAt(5, 5));
+        field.setCat(cat);
+        ChangeLog log = field.getChangeLog();
+        cat.move(Side.LEFT);
+
+        assertTrue(log.delta().length <= 7);
+    }
+
+    @Test
+    public void repeatedChangeSentOnce() {
+        Field field = Field.rectangle(11, 11);
+        ChangeLog log = field.getChangeLog();
+        field.cellAt(3, 4).block(true);
+        field.cellAt(3, 4).block(false);
+        field.cellAt(3, 4).block(true);
+
+        assertEquals(log.delta().length, blockFrameLength());
+    }
+
+    private int blockFrameLength() {
+        Field field = Field.rectangle(11, 11);
+        ChangeLog log = field.getChangeLog();
+        field.cellAt(3, 4).block(true);
+        return log.delta().length;
+    }
+
+    @Test
+    public void deltaBeforeSnapshot() {
+        Field field = Field.rectangle(5, 5);
+        ChangeLog log = field.getChangeLog();
+        field.cellAt(1, 1).block(true);
+
+        BoardReplica replica = new BoardReplica();
+        Exception exception = assertThrows(IllegalStateException.class,
+                () -> replica.apply(ByteBuffer.wrap(log.delta())));
+        assertEquals("Нет начального состояния поля!", exception.getMessage());
+    }
+
+    @Test
+    public void incompleteFrameNotApplied() {
+        Field field = Field.rectangle(5, 5);
+        byte[] snapshot = field.getChangeLog().snapshot();
+        ByteBuffer buffer = ByteBuffer.wrap(snapshot, 0, snapshot.length - 1);
+
+        BoardReplica replica = new BoardReplica();
+        assertFalse(replica.apply(buffer));
+        assertEquals(0, buffer.position());
+        assertFalse(replica.isSynced());
+    }
+
+    @Test
+    public void resetSendsSnapshot() {
+        Field field = Field.rectangle(6, 5);
+        ChangeLog log = field.getChangeLog();
+        BoardReplica replica = new BoardReplica();
+        replica.apply(ByteBuffer.wrap(log.snapshot()));
+        field.cellAt(1, 1).block(true);
+        replica.apply(ByteBuffer.wrap(log.delta()));
+
+        boolean[] obstacles = new boolean[30];
+        obstacles[7] = true;
+        field.reset(obstacles);
+        byte[] frame = log.delta();
+        assertEquals(log.snapshot().length, frame.length);
+        replica.apply(ByteBuffer.wrap(frame));
+        assertSameField(field, replica);
+    }
+
+    @Test
+    public void replicaFollowsRandomGame() {
+        Random random = new Random(7);
+        Field field = Field.rectangle(13, 9);
+        Cat cat = new Cat(field.cellAt(6, 4));
+        field.setCat(cat);
+        ChangeLog log = field.getChangeLog();
+        BoardReplica replica = new BoardReplica();
+        ByteBuffer stream = ByteBuffer.allocate(1 << 16);
+        stream.put(log.snapshot());
+
+        for (int turn = 0; turn < 300; turn++) {
+            int x = random.nextInt(13), y = random.nextInt(9);
+            if (!field.cellAt(x, y).isOccupied() && !field.cellAt(x, y).isDestroyed()) {
+                switch (random.nextInt(4)) {
+                    case 0 -> field.cellAt(x, y).block(!field.cellAt(x, y).isBlocked());
+                    case 1 -> field.freezeCell(field.cellAt(x, y), !field.cellAt(x, y).isFrozen());
+                    case 2 -> field.cellAt(x, y).destroy();
+                    default -> {
+                        Side side = Side.values()[random.nextInt(4)];
+                        if (cat.getCell().getNeighbor(side) != null && !cat.getCell().getNeighbor(side).isBlocked()
+                                && !cat.getCell().getNeighbor(side).isFrozen()) cat.move(side);
+                    }
+                }
+            }
+            byte[] frame = log.delta();
+            if (frame != null) stream.put(frame);
+            if (turn % 10 != 0) continue;
+
+            stream.flip();
+            while (replica.apply(stream)) {
+            }
+            stream.compact();
+            assertSameField(field, replica);
+        }
+    }
+}
@@ -0,0 +1,400 @@
+import items.Cat;
+import items.Cell;
+import items.Field;
+import items.Game;
+import items.Side;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrentFieldTest {
+    private static void runAll(List<Runnable> tasks) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        List<Throwable> errors = new ArrayList<>();
+        for (Runnable task : tasks) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    task.run();
+                } catch (Throwable e) {
+                    synchronized (errors) { errors.add(e); }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) thread.join();
+        if (!errors.isEmpty()) throw new AssertionError(errors.get(0));
+    }
+
+    @Test
+    public void concurrentWithSmallSide() {
+        assertThrows(IllegalArgumentException.class, () -> Field.concurrent(3, 5, null));
+        assertThrows(IllegalArgumentException.class, () -> Field.concurrent(5, 5, new boolean[3]));
+    }
+
+    @Test
+    public void behavesLikeRectangle() {
+        Field plain = Field.rectangle(9, 7);
+        Field shared = Field.concurrent(9, 7, null);
+        assertTrue(shared.isConcurrent());
+        assertFalse(plain.isConcurrent());
+
+        for (Field field : List.of(plain, shared)) {
+            field.setCat(new Cat(field.cellAt(4, 3)));
+            field.cellAt(5, 3).block(true);
+            field.cellAt(4, 2).freeze(true);
+            field.getCat().move(Side.LEFT);
+            field.getCat().move(Side.BOTTOM);
+        }
+        assertEquals(plain.getHash(), shared.getHash());
+        assertEquals(3, shared.getCat().getCell().X());
+        assertEquals(4, shared.getCat().getCell().Y());
+        assertSame(shared.getCat(), shared.cellAt(3, 4).getCat());
+        assertTrue(shared.cellAt(3, 4).isOccupied());
+        assertNull(shared.cellAt(4, 3).getCat());
+        assertFalse(shared.cellAt(4, 3).isOccupied());
+    }
+
+    @Test
+    public void moveIntoClosedCell() {
+        Field field = Field.concurrent(7, 7, null);
+        Cat cat = new Cat(field.cellAt(3, 3));
+        field.cellAt(4, 3).block(true);
+
+        assertThrows(IllegalStateException.class, () -> cat.move(Side.RIGHT));
+        assertSame(cat, field.cellAt(3, 3).getCat());
+        assertSame(field.cellAt(3, 3), cat.getCell());
+    }
+
+    @Test
+    public void setCatReplacesAndUnsetCatRemoves() {
+        Field field = Field.concurrent(7, 7, null);
+        Cat first = new Cat(field.cellAt(1, 1));
+        Cat second = new Cat(field.cellAt(2, 2));
+
+        field.cellAt(2, 2).setCat(first);
+        assertSame(first, field.cellAt(2, 2).getCat());
+        assertNull(field.cellAt(1, 1).getCat());
+        assertFalse(field.cellAt(1, 1).isOccupied());
+        assertNull(second.getCell());
+
+        first.unsetCell();
+        assertNull(first.getCell());
+        assertFalse(field.cellAt(2, 2).isOccupied());
+        assertEquals(Field.concurrent(7, 7, null).getHash(), field.getHash());
+    }
+
+    @Test
+    public void parallelBlocking() throws InterruptedException {
+        int side = 64, threads = 4;
+        Field field = Field.concurrent(side, side, null);
+        Field expected = Field.rectangle(side, side);
+        List<Runnable> tasks = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int offset = t;
+            tasks.add(() -> {
+                // Потоки меняют перемешанные Ячейки, в том числе соседние в одном байте
+                for (int i = offset; i < side * side; i += threads) {
+                    Cell cell = field.getCells().get(i);
+                    cell.block(true);
+                    if (i % 3 == 0) cell.freeze(true);
+                    if (i % 5 == 0) cell.block(false);
+                }
+            });
+        }
+        runAll(tasks);
+
+        for (int i = 0; i < side * side; i++) {
+            Cell cell = expected.getCells().get(i);
+            cell.block(true);
+            if (i % 3 == 0) cell.freeze(true);
+            if (i % 5 == 0) cell.block(false);
+            assertEquals(cell.isBlocked(), field.getCells().get(i).isBlocked(), "Ячейка " + i);
+            assertEquals(cell.isFrozen(), field.getCells().get(i).isFrozen(), "Ячейка " + i);
+        }
+        assertEquals(expected.getHash(), field.getHash());
+    }
+
+    @Test
+    public void parallelCatsKeepLinks() throws InterruptedException {
+        int side = 48, cats = 8;
+        Field field = Field.concurrent(side, side, null);
+        List<Cat> all = new ArrayList<>();
+        for (int i = 0; i < cats; i++) all.add(new Cat(field.cellAt(4 + i * 5, side / 2)));
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger lost = new AtomicInteger();
+
+        List<Runnable> tasks = new ArrayList<>();
+        for (Cat cat : all) {
+            tasks.add(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                Side[] sides = Side.values();
+                for (int i = 0; i < 2000; i++) {
+                    try {
+                        cat.move(sides[random.nextInt(sides.length)]);
+                    } catch (IllegalStateException e) {
+                        // Ячейку заняли или закрыли раньше
+                    }
+                }
+            });
+        }
+        tasks.add(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < 500; i++) {
+                Cell cell = field.getCells().get(random.nextInt(side * side));
+                try {
+                    cell.block(true);
+                } catch (IllegalStateException e) {
+                    // В Ячейке Кот
+                }
+                cell.block(false);
+            }
+        });
+        Thread observer = new Thread(() -> {
+            // Наблюдатель всегда видит каждого Кота в какой-то Ячейке
+            while (running.get()) {
+                for (Cat cat : all) if (cat.getCell() == null) lost.incrementAndGet();
+                Thread.onSpinWait();
+            }
+        });
+        observer.start();
+        try {
+            runAll(tasks);
+        } finally {
+            running.set(false);
+            observer.join();
+        }
+
+        assertEquals(0, lost.get());
+        int occupied = 0;
+        for (Cell cell : field.getCells()) {
+            Cat cat = cell.getCat();
+            assertEquals(cat != null, cell.isOccupied());
+            if (cat == null) continue;
+            occupied++;
+            assertSame(cell, cat.getCell());
+        }
+        assertEquals(cats, occupied);
+        for (Cat cat : all) assertSame(cat, cat.getCell().getCat());
+    }
+
+    private static boolean isClosed(Cell cell) {
+        return cell.isBlocked() || cell.isFrozen() || cell.isDestroyed();
+    }
+
+    @Test
+    public void closingCellWithCatFails() {
+        Field field = Field.concurrent(7, 7, null);
+        Cat cat = new Cat(field.cellAt(3, 3));
+        Cell cell = field.cellAt(3, 3);
+
+        assertThrows(IllegalStateException.class, () -> cell.block(true));
+        assertThrows(IllegalStateException.class, () -> cell.freeze(true));
+        assertThrows(IllegalStateException.class, cell::destroy);
+        assertFalse(isClosed(cell));
+        assertSame(cat, cell.getCat());
+    }
+
+    @Test
+    public void catNeverStandsInClosedCell() throws InterruptedException {
+        int side = 24, cats = 6;
+        Field field = Field.concurrent(side, side, null);
+        List<Cat> all = new ArrayList<>();
+        for (int i = 0; i < cats; i++) all.add(new Cat(field.cellAt(2 + i * 4, side / 2)));
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger violations = new AtomicInteger();
+
+        List<Runnable> tasks = new ArrayList<>();
+        for (Cat cat : all) {
+            tasks.add(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                Side[] sides = Side.values();
+                for (int i = 0; i < 3000; i++) {
+                    try {
+                        cat.move(sides[random.nextInt(sides.length)]);
+                    } catch (IllegalStateException e) {
+                        // Ячейку заняли или закрыли раньше
+                    }
+                }
+            });
+        }
+        for (int t = 0; t < 2; t++) {
+            int offset = t;
+            tasks.add(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < 400; i++) {
+                    // У каждого потока свои Ячейки, поэтому между проверкой и закрытием их никто не уничтожит
+                    Cell cell = field.getCells().get(random.nextInt(side * side / 2) * 2 + offset);
+                    if (cell.isDestroyed()) continue;
+                    try {
+                        switch (i % 3) {
+                            case 0 -> cell.block(true);
+                            case 1 -> cell.freeze(true);
+                            default -> cell.destroy();
+                        }
+                    } catch (IllegalStateException e) {
+                        // В Ячейке Кот
+                    }
+                }
+            });
+        }
+        Thread observer = new Thread(() -> {
+            // Закрытая Ячейка здесь больше не открывается, поэтому Кот в ней после закрытия - ошибка
+            while (running.get()) {
+                for (Cell cell : field.getCells()) if (isClosed(cell) && cell.isOccupied()) violations.incrementAndGet();
+            }
+        });
+        observer.start();
+        try {
+            runAll(tasks);
+        } finally {
+            running.set(false);
+            observer.join();
+        }
+
+        assertEquals(0, violations.get());
+        for (Cat cat : all) assertFalse(isClosed(cat.getCell()));
+        for (Cell cell : field.getCells()) assertFalse(isClosed(cell) && cell.isOccupied());
+    }
+
+    @Test
+    public void gameBlockOnCatCellFails() {
+        Game game = new Game(Field.concurrent(9, 9, null));
+        game.placeCat(4, 4);
+        assertFalse(game.canBlock(4, 4));
+        assertThrows(IllegalArgumentException.class, () -> game.block(4, 4));
+        assertFalse(isClosed(game.getField().cellAt(4, 4)));
+        assertEquals(0, game.getTurns());
+    }
+
+    @Test
+    public void contendedWritesKeepDerivedStructures() throws InterruptedException {
+        int side = 32, cats = 4, blockers = 3;
+        Field field = Field.concurrent(side, side, null);
+        long empty = field.getHash();
+        List<Cat> all = new ArrayList<>();
+        for (int i = 0; i < cats; i++) all.add(new Cat(field.cellAt(4 + i * 8, side / 2)));
+        AtomicBoolean running = new AtomicBoolean(true);
+
+        List<Runnable> tasks = new ArrayList<>();
+        for (Cat cat : all) {
+            tasks.add(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                Side[] sides = Side.values();
+                for (int i = 0; i < 2000; i++) {
+                    try {
+                        cat.move(sides[random.nextInt(sides.length)]);
+                    } catch (IllegalStateException e) {
+                        // Ячейку заняли или закрыли раньше
+                    }
+                }
+            });
+        }
+        for (int t = 0; t < blockers; t++) {
+            tasks.add(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < 3000; i++) {
+                    Cell cell = field.getCells().get(random.nextInt(side * side));
+                    try {
+                        if (random.nextBoolean()) cell.block(!cell.isBlocked());
+                        else cell.freeze(!cell.isFrozen());
+                    } catch (IllegalStateException e) {
+                        // В Ячейке Кот
+                    }
+                }
+            });
+        }
+        List<Throwable> errors = new ArrayList<>();
+        Thread reader = new Thread(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            try {
+                while (running.get()) {
+                    int x = random.nextInt(side), y = random.nextInt(side);
+                    field.getRegions().regionSize(x, y);
+                    field.getRegions().reachesBorder(x, y);
+                    field.getBorderDistances().distance(x, y);
+                    field.getChangeLog().delta();
+                }
+            } catch (Throwable e) {
+                errors.add(e);
+            }
+        });
+        reader.start();
+        try {
+            runAll(tasks);
+        } finally {
+            running.set(false);
+            reader.join();
+        }
+        assertEquals(List.of(), errors);
+
+        // Области и расстояния совпадают с построенными заново по итоговым Ячейкам
+        Field fresh = Field.rectangle(side, side);
+        for (int i = 0; i < side * side; i++) {
+            Cell cell = field.getCells().get(i);
+            fresh.getCells().get(i).block(cell.isBlocked());
+            fresh.getCells().get(i).freeze(cell.isFrozen());
+        }
+        for (int y = 0; y < side; y++) {
+            for (int x = 0; x < side; x++) {
+                assertEquals(fresh.getRegions().regionSize(x, y), field.getRegions().regionSize(x, y));
+                assertEquals(fresh.getRegions().reachesBorder(x, y), field.getRegions().reachesBorder(x, y));
+                assertEquals(fresh.getBorderDistances().distance(x, y), field.getBorderDistances().distance(x, y));
+            }
+        }
+
+        // История не потеряла ни одного изменения: отмена возвращает пустое Поле
+        assertTrue(field.getHistory().undo());
+        assertEquals(empty, field.getHash());
+        for (Cat cat : all) assertNull(cat.getCell());
+    }
+
+    @Test
+    public void twoCatsRaceForOneCell() throws InterruptedException {
+        for (int round = 0; round < 200; round++) {
+            Field field = Field.concurrent(7, 7, null);
+            Cat left = new Cat(field.cellAt(2, 3));
+            Cat right = new Cat(field.cellAt(4, 3));
+            AtomicInteger failed = new AtomicInteger();
+            runAll(List.of(
+                    () -> {
+                        try { left.move(Side.RIGHT); } catch (IllegalStateException e) { failed.incrementAndGet(); }
+                    },
+                    () -> {
+                        try { right.move(Side.LEFT); } catch (IllegalStateException e) { failed.incrementAndGet(); }
+                    }));
+
+            Cat winner = field.cellAt(3, 3).getCat();
+            assertNotNull(winner);
+            assertEquals(1, failed.get(), "Ячейку должен занять только один Кот");
+            Cat loser = winner == left ? right : left;
+            assertSame(loser, loser.getCell().getCat());
+            assertNotEquals(3, loser.getCell().X());
+        }
+    }
+
+    @Test
+    public void gameOnConcurrentField() {
+        Game game = new Game(Field.concurrent(11, 11, null), Game.SHORTEST_PATH, Game.BLOCK_NEXT_STEP, true);
+        game.placeCat(5, 5);
+        game.start();
+        assertTrue(game.getStatus().isFinished());
+
+        long finished = game.getField().getHash();
+        int turns = game.getTurns();
+        assertTrue(game.undo());
+        assertEquals(turns - 1, game.getTurns());
+        assertTrue(game.redo());
+        assertEquals(finished, game.getField().getHash());
+    }
+}
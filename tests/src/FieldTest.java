@@ -11,32 +11,8 @@ import static org.junit.jupiter.api.Assertions.*;
 
 public class FieldTest {
     // Вспомогательный метод для создания тестового поля
-    private static Cell getCell(List<Cell> cells, int x, int y) {
-        for (Cell cell : cells) {
-            if (cell.X() == x && cell.Y() == y) {
-                return cell;
-            }
-        }
-        return null;
-    }
     private Field createTestField(int sizeX, int sizeY) {
-        List<Cell> cells = new ArrayList<>();
-        for (int x = 0; x < sizeX; x++) {
-            for (int y = 0; y < sizeY; y++) {
-                cells.add(new Cell(x, y));
-            }
-        }
-
-        for (Cell cell : cells) {
-            int x = cell.X();
-            int y = cell.Y();
-
-            if (x > 0) cell.setNeighbor(Side.LEFT, getCell(cells, x - 1, y));
-            if (x < sizeX - 1) cell.setNeighbor(Side.RIGHT, getCell(cells, x + 1, y));
-            if (y > 0) cell.setNeighbor(Side.TOP, getCell(cells, x, y - 1));
-            if (y < sizeY - 1) cell.setNeighbor(Side.BOTTOM, getCell(cells, x, y + 1));
-        }
-        return new Field(cells, sizeX, sizeY);
+        return Field.rectangle(sizeX, sizeY);
     }
 
     @Test
@@ -280,4 +256,185 @@ public class FieldTest {
 
         assertEquals(cat, field.getCat());
     }
+
+    @Test
+    public void cellsShareFieldState() {
+        Field field = createTestField(5, 5);
+        Cell corner = field.getCells().get(0);
+        corner.getNeighbor(Side.RIGHT).block(true);
+
+        assertTrue(field.getCells().get(1).isBlocked());
+    }
+
+    @Test
+    public void cellStateKeptWhenFieldCreated() {
+        List<Cell> cells = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            for (int j = 0; j < 4; j++) {
+                cells.add(new Cell(i, j));
+            }
+        }
+        cells.get(5).block(true);
+        cells.get(6).freeze(true);
+        Cat cat = new Cat(cells.get(7));
+
+        new Field(cells, 4, 4);
+        assertTrue(cells.get(5).isBlocked());
+        assertTrue(cells.get(6).isFrozen());
+        assertEquals(cat, cells.get(7).getCat());
+        assertEquals(cells.get(7), cat.getCell());
+    }
+
+    @Test
+    public void cellsWithoutNeighborsGetFieldNeighbors() {
+        List<Cell> cells = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            for (int j = 0; j < 4; j++) {
+                cells.add(new Cell(i, j));
+            }
+        }
+        new Field(cells, 4, 4);
+        Cell neighbor = cells.get(0).getNeighbor(Side.RIGHT);
+
+        assertEquals(1, neighbor.X());
+        assertEquals(0, neighbor.Y());
+        assertNull(cells.get(0).getNeighbor(Side.LEFT));
+    }
+
+    @Test
+    public void cellAtReturnsFieldCell() {
+        Field field = createTestField(5, 5);
+        Cell cell = field.cellAt(2, 3);
+
+        assertSame(field.getCells().get(3 * 5 + 2), cell);
+        assertEquals(2, cell.X());
+        assertEquals(3, cell.Y());
+    }
+
+    @Test
+    public void cellAtOutOfField() {
+        Field field = createTestField(5, 5);
+        assertNull(field.cellAt(5, 0));
+        assertNull(field.cellAt(0, -1));
+    }
+
+    @Test
+    public void rectangleWiresNeighbors() {
+        Field field = Field.rectangle(4, 6);
+        Cell cell = field.cellAt(3, 5);
+
+        assertEquals(24, field.getCells().size());
+        assertEquals(field.cellAt(2, 5), cell.getNeighbor(Side.LEFT));
+        assertEquals(field.cellAt(3, 4), cell.getNeighbor(Side.TOP));
+        assertNull(cell.getNeighbor(Side.RIGHT));
+        assertNull(cell.getNeighbor(Side.BOTTOM));
+    }
+
+    @Test
+    public void rectangleWithLowWidth() {
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> Field.rectangle(3, 5));
+        assertEquals("Длина поля должна быть больше трех!", exception.getMessage());
+    }
+
+    @Test
+    public void rectangleWithObstacles() {
+        boolean[] obstacles = new boolean[16];
+        obstacles[5] = true;
+        Field field = Field.rectangle(4, 4, obstacles);
+
+        assertTrue(field.cellAt(1, 1).isBlocked());
+        assertFalse(field.cellAt(2, 1).isBlocked());
+    }
+
+    @Test
+    public void rectangleWithWrongObstaclesSize() {
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> Field.rectangle(4, 4, new boolean[15]));
+        assertEquals("Маска препятствий не совпадает с размером поля!", exception.getMessage());
+    }
+
+    @Test
+    public void resetClearsField() {
+        Field field = createTestField(5, 5);
+        field.cellAt(1, 1).block(true);
+        field.cellAt(2, 1).freeze(true);
+        Cat cat = new Cat(field.cellAt(2, 2));
+        field.setCat(cat);
+
+        boolean[] obstacles = new boolean[25];
+        obstacles[0] = true;
+        field.reset(obstacles);
+
+        assertNull(field.getCat());
+        assertNull(cat.getCell());
+        assertFalse(field.cellAt(1, 1).isBlocked());
+        assertFalse(field.cellAt(2, 1).isFrozen());
+        assertFalse(field.cellAt(2, 2).isOccupied());
+        assertTrue(field.cellAt(0, 0).isBlocked());
+    }
+
+    @Test
+    public void hashOfEmptyField() {
+        assertEquals(0, createTestField(5, 5).getHash());
+    }
+
+    @Test
+    public void hashRestoredAfterUndoingChange() {
+        Field field = createTestField(5, 5);
+        long hash = field.getHash();
+
+        field.cellAt(1, 2).block(true);
+        assertNotEquals(hash, field.getHash());
+        field.cellAt(1, 2).block(false);
+        assertEquals(hash, field.getHash());
+    }
+
+    @Test
+    public void hashDistinguishesCellStates() {
+        Field blocked = createTestField(5, 5);
+        Field frozen = createTestField(5, 5);
+        blocked.cellAt(1, 2).block(true);
+        frozen.cellAt(1, 2).freeze(true);
+
+        assertNotEquals(blocked.getHash(), frozen.getHash());
+    }
+
+    @Test
+    public void hashSameForSamePosition() {
+        Field first = createTestField(6, 6);
+        Field second = createTestField(6, 6);
+        first.cellAt(1, 1).block(true);
+        first.cellAt(2, 3).destroy();
+        first.setCat(new Cat(first.cellAt(3, 3)));
+        second.setCat(new Cat(second.cellAt(3, 3)));
+        second.cellAt(2, 3).destroy();
+        second.cellAt(1, 1).block(true);
+
+        assertEquals(first.getHash(), second.getHash());
+    }
+
+    @Test
+    public void hashFollowsCatMoves() {
+        Field field = createTestField(5, 5);
+        field.setCat(new Cat(field.cellAt(2, 2)));
+        long hash = field.getHash();
+
+        field.getCat().move(Side.LEFT);
+        assertNotEquals(hash, field.getHash());
+        field.getCat().move(Side.RIGHT);
+        assertEquals(hash, field.getHash());
+    }
+
+    @Test
+    public void hashAfterReset() {
+        boolean[] obstacles = new boolean[25];
+        obstacles[3] = true;
+        Field field = Field.rectangle(5, 5, obstacles);
+        long hash = field.getHash();
+
+        field.cellAt(2, 2).block(true);
+        field.reset(obstacles);
+        assertEquals(hash, field.getHash());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,96 @@
+import items.GameServer;
+import items.LoadGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameServerTest {
+    private GameServer server;
+    private Socket socket;
+    private BufferedReader in;
+    private PrintWriter out;
+
+    @BeforeEach
+    public void connect() throws IOException {
+        server = new GameServer(0, 5, 5);
+        socket = new Socket("localhost", server.getPort());
+        in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+    }
+
+    @AfterEach
+    public void disconnect() throws IOException {
+        socket.close();
+        server.close();
+    }
+
+    private String request(String command) throws IOException {
+        out.println(command);
+        return in.readLine();
+    }
+
+    @Test
+    public void createServerWithSmallField() {
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> new GameServer(0, 5, 3));
+        assertEquals("Ширина поля должна быть больше трех!", exception.getMessage());
+    }
+
+    @Test
+    public void stateOfNewGame() throws IOException {
+        assertEquals("STATE NOT_STARTED 0 -1 -1", request("state"));
+    }
+
+    @Test
+    public void placeCatAndBlock() throws IOException {
+        assertEquals("OK IN_PROGRESS 2 2", request("place 2 2"));
+        assertTrue(request("block 0 0").startsWith("OK IN_PROGRESS "));
+        assertTrue(request("state").startsWith("STATE IN_PROGRESS 1 "));
+    }
+
+    @Test
+    public void fieldShowsCatAndBlocks() throws IOException {
+        request("place 2 2");
+        request("block 0 0");
+        String reply = request("field");
+        assertTrue(reply.startsWith("FIELD 5 5 #"));
+        assertEquals(25, reply.substring("FIELD 5 5 ".length()).length());
+        assertEquals(1, reply.chars().filter(c -> c == 'C').count());
+    }
+
+    @Test
+    public void wrongCommands() throws IOException {
+        assertEquals("ERROR Неизвестная команда!", request("jump"));
+        assertEquals("ERROR Не указаны координаты!", request("place 1"));
+        assertEquals("ERROR Неверные координаты!", request("place a b"));
+        assertEquals("ERROR Партия не идет!", request("block 1 1"));
+        request("place 2 2");
+        assertEquals("ERROR Эту ячейку нельзя заблокировать!", request("block 2 2"));
+    }
+
+    @Test
+    public void resetAndQuit() throws IOException {
+        request("place 2 2");
+        assertEquals("OK NOT_STARTED", request("reset"));
+        assertEquals("STATE NOT_STARTED 0 -1 -1", request("state"));
+        assertEquals("BYE", request("quit"));
+        assertNull(in.readLine());
+    }
+
+    @Test
+    public void loadGeneratorPlaysGames() {
+        LoadGenerator.Report report = new LoadGenerator("localhost", server.getPort()).run(50, 3);
+        assertEquals(150, report.getGames());
+        assertTrue(report.getRequests() >= 150);
+        assertTrue(report.getLatencyMicros(50) <= report.getLatencyMicros(99));
+    }
+}
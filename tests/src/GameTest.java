@@ -0,0 +1,158 @@
+import items.Cat;
+import items.Field;
+import items.Game;
+import items.Solver;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameTest {
+    @Test
+    public void createGameWithoutField() {
+        Exception exception = assertThrows(NullPointerException.class,
+                () -> new Game(null));
+        assertEquals("Игра невозможна без поля!", exception.getMessage());
+    }
+
+    @Test
+    public void newGameNotStarted() {
+        Game game = new Game(Field.rectangle(5, 5));
+        assertEquals(Game.Status.NOT_STARTED, game.getStatus());
+        assertFalse(game.canBlock(1, 1));
+        assertTrue(game.canPlaceCat(2, 2));
+    }
+
+    @Test
+    public void gameWithPlacedCatInProgress() {
+        Field field = Field.rectangle(5, 5);
+        field.setCat(new Cat(field.cellAt(2, 2)));
+        assertEquals(Game.Status.IN_PROGRESS, new Game(field).getStatus());
+    }
+
+    @Test
+    public void placeCatTwice() {
+        Game game = new Game(Field.rectangle(5, 5));
+        game.placeCat(2, 2);
+        Exception exception = assertThrows(IllegalStateException.class,
+                () -> game.placeCat(1, 1));
+        assertEquals("Кот уже на поле!", exception.getMessage());
+    }
+
+    @Test
+    public void placeCatOnBorderEscapes() {
+        Game game = new Game(Field.rectangle(5, 5));
+        assertEquals(Game.Status.CAT_ESCAPED, game.placeCat(0, 2));
+    }
+
+    @Test
+    public void blockCatCell() {
+        Game game = new Game(Field.rectangle(5, 5));
+        game.placeCat(2, 2);
+        assertFalse(game.canBlock(2, 2));
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> game.block(2, 2));
+        assertEquals("Эту ячейку нельзя заблокировать!", exception.getMessage());
+    }
+
+    @Test
+    public void gameWithoutHistoryCannotUndo() {
+        Game game = new Game(Field.rectangle(7, 7));
+        game.placeCat(3, 3);
+        game.block(0, 0);
+        assertFalse(game.canUndo());
+        assertFalse(game.undo());
+        assertFalse(game.canRedo());
+        assertFalse(game.redo());
+        assertEquals(1, game.getTurns());
+    }
+
+    @Test
+    public void catMovesAfterBlock() {
+        Game game = new Game(Field.rectangle(7, 7));
+        game.placeCat(3, 3);
+        assertEquals(Game.Status.IN_PROGRESS, game.block(0, 0));
+
+        Cat cat = game.getField().getCat();
+        assertNotEquals(3, Math.min(Math.min(cat.getCell().X(), 6 - cat.getCell().X()),
+                Math.min(cat.getCell().Y(), 6 - cat.getCell().Y())));
+        assertEquals(1, game.getTurns());
+    }
+
+    @Test
+    public void catEscapesWhenBlockerIsSlow() {
+        Game game = new Game(Field.rectangle(5, 5));
+        game.placeCat(2, 2);
+        game.block(0, 0);
+        assertEquals(Game.Status.IN_PROGRESS, game.getStatus());
+        game.block(0, 1);
+        assertEquals(Game.Status.CAT_ESCAPED, game.getStatus());
+        assertThrows(IllegalStateException.class, () -> game.block(0, 2));
+    }
+
+    @Test
+    public void catCaughtByLastBlock() {
+        Field field = Field.rectangle(7, 7);
+        field.setCat(new Cat(field.cellAt(3, 3)));
+        field.cellAt(2, 3).block(true);
+        field.cellAt(4, 3).block(true);
+        field.cellAt(3, 2).block(true);
+        Game game = new Game(field);
+
+        assertEquals(Game.Status.CAT_CAUGHT, game.block(3, 4));
+        assertEquals(3, field.getCat().getCell().X());
+        assertEquals(3, field.getCat().getCell().Y());
+    }
+
+    @Test
+    public void startWithoutBlockerPlayer() {
+        Game game = new Game(Field.rectangle(5, 5));
+        game.placeCat(2, 2);
+        Exception exception = assertThrows(IllegalStateException.class, game::start);
+        assertEquals("Не задана стратегия блокирующего игрока!", exception.getMessage());
+    }
+
+    @Test
+    public void startPlaysGameToTheEnd() {
+        Game game = new Game(Field.rectangle(9, 9), Game.SHORTEST_PATH, field -> {
+            for (int y = 0; y < field.getSideY(); y++) {
+                for (int x = 0; x < field.getSideX(); x++) {
+                    if (!field.cellAt(x, y).isBlocked() && !field.cellAt(x, y).isOccupied()) return field.cellAt(x, y);
+                }
+            }
+            return null;
+        });
+        game.placeCat(4, 4);
+
+        assertEquals(Game.Status.CAT_ESCAPED, game.start());
+        assertTrue(game.getTurns() > 0);
+    }
+
+    @Test
+    public void solverBlockerCatchesCat() {
+        Field field = Field.rectangle(7, 7);
+        int[][] walls = {{2, 2}, {4, 2}, {2, 3}, {4, 3}, {2, 4}, {4, 4}, {3, 1}};
+        for (int[] wall : walls) field.cellAt(wall[0], wall[1]).block(true);
+        Solver solver = new Solver(12);
+        Game game = new Game(field, Game.SHORTEST_PATH, f -> {
+            Solver.Result result = solver.solve(f, 3, 0);
+            return f.cellAt(result.getX(), result.getY());
+        });
+        game.placeCat(3, 3);
+
+        assertEquals(Game.Status.CAT_CAUGHT, game.start());
+        assertEquals(1, game.getTurns());
+    }
+
+    @Test
+    public void resetStartsNewGame() {
+        Game game = new Game(Field.rectangle(5, 5));
+        game.placeCat(2, 2);
+        game.block(1, 1);
+        game.reset(null);
+
+        assertEquals(Game.Status.NOT_STARTED, game.getStatus());
+        assertEquals(0, game.getTurns());
+        assertNull(game.getField().getCat());
+        assertFalse(game.getField().cellAt(1, 1).isBlocked());
+    }
+}
@@ -0,0 +1,172 @@
+import items.Cat;
+import items.Field;
+import items.Game;
+import items.History;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HistoryTest {
+    @Test
+    public void undoBlockFreezeDestroy() {
+        Field field = Field.rectangle(6, 6);
+        History history = field.getHistory();
+        long start = field.getHash();
+
+        field.cellAt(1, 1).block(true);
+        field.freezeCell(field.cellAt(2, 2), true);
+        history.commit();
+        long afterFirst = field.getHash();
+        field.cellAt(3, 3).destroy();
+        history.commit();
+
+        assertTrue(history.undo());
+        assertEquals(afterFirst, field.getHash());
+        assertFalse(field.cellAt(3, 3).isDestroyed());
+        assertTrue(field.cellAt(2, 2).isFrozen());
+
+        assertTrue(history.undo());
+        assertEquals(start, field.getHash());
+        assertFalse(field.cellAt(1, 1).isBlocked());
+        assertFalse(field.cellAt(2, 2).isFrozen());
+        assertFalse(history.undo());
+
+        assertTrue(history.redo());
+        assertTrue(history.redo());
+        assertFalse(history.redo());
+        assertTrue(field.cellAt(3, 3).isDestroyed());
+        assertTrue(field.cellAt(1, 1).isBlocked());
+    }
+
+    @Test
+    public void newChangeDropsRedo() {
+        Field field = Field.rectangle(5, 5);
+        History history = field.getHistory();
+        field.cellAt(1, 1).block(true);
+        history.commit();
+        history.undo();
+        assertTrue(history.canRedo());
+
+        field.cellAt(2, 2).block(true);
+        assertFalse(history.canRedo());
+        assertFalse(history.redo());
+        assertTrue(history.undo());
+        assertFalse(field.cellAt(2, 2).isBlocked());
+        assertFalse(field.cellAt(1, 1).isBlocked());
+    }
+
+    @Test
+    public void undoCatMove() {
+        Field field = Field.rectangle(5, 5);
+        Cat cat = new Cat(field.cellAt(2, 2));
+        field.setCat(cat);
+        History history = field.getHistory();
+
+        cat.move(items.Side.LEFT);
+        history.commit();
+        assertEquals(1, cat.getCell().X());
+
+        history.undo();
+        assertEquals(2, cat.getCell().X());
+        assertEquals(cat, field.cellAt(2, 2).getCat());
+        assertNull(field.cellAt(1, 2).getCat());
+
+        history.redo();
+        assertEquals(1, cat.getCell().X());
+        assertEquals(cat, field.cellAt(1, 2).getCat());
+    }
+
+    @Test
+    public void resetClearsHistory() {
+        Field field = Field.rectangle(5, 5);
+        History history = field.getHistory();
+        field.cellAt(1, 1).block(true);
+        field.reset(null);
+        assertFalse(history.canUndo());
+        assertFalse(history.undo());
+    }
+
+    @Test
+    public void gameUndoRedoWholeGame() {
+        Random random = new Random(11);
+        Field field = Field.rectangle(15, 15);
+        Game game = new Game(field, true);
+        List<Long> hashes = new ArrayList<>();
+        hashes.add(field.getHash());
+        game.placeCat(7, 7);
+        hashes.add(field.getHash());
+        while (game.getStatus() == Game.Status.IN_PROGRESS) {
+            int x = random.nextInt(15), y = random.nextInt(15);
+            if (!game.canBlock(x, y)) continue;
+            game.block(x, y);
+            hashes.add(field.getHash());
+        }
+        Game.Status result = game.getStatus();
+        int turns = game.getTurns();
+
+        for (int i = hashes.size() - 2; i >= 0; i--) {
+            assertTrue(game.undo());
+            assertEquals(hashes.get(i), field.getHash());
+            if (i > 0) {
+                assertEquals(Game.Status.IN_PROGRESS, game.getStatus());
+                assertEquals(i - 1, game.getTurns());
+            }
+        }
+        assertFalse(game.undo());
+        assertEquals(Game.Status.NOT_STARTED, game.getStatus());
+        assertNull(field.getCat());
+        assertTrue(game.canPlaceCat(7, 7));
+
+        for (int i = 1; i < hashes.size(); i++) {
+            assertTrue(game.redo());
+            assertEquals(hashes.get(i), field.getHash());
+        }
+        assertFalse(game.redo());
+        assertEquals(result, game.getStatus());
+        assertEquals(turns, game.getTurns());
+    }
+
+    @Test
+    public void undoKeepsRegionsAndDistances() {
+        Field field = Field.rectangle(9, 9);
+        Game game = new Game(field, true);
+        game.placeCat(4, 4);
+        assertTrue(field.getRegions().canCatEscape());
+        int distance = field.getBorderDistances().distance(4, 4);
+        int[][] ring = {{3, 3}, {4, 3}, {5, 3}, {3, 4}, {5, 4}, {3, 5}, {4, 5}, {5, 5}};
+        for (int[] cell : ring) {
+            if (game.getStatus() != Game.Status.IN_PROGRESS) break;
+            if (game.canBlock(cell[0], cell[1])) game.block(cell[0], cell[1]);
+        }
+        while (game.canUndo() && field.getCat() != null && game.getTurns() > 0) game.undo();
+
+        assertEquals(0, game.getTurns());
+        assertEquals(4, field.getCat().getCell().X());
+        assertEquals(4, field.getCat().getCell().Y());
+        assertTrue(field.getRegions().canCatEscape());
+        assertEquals(81, field.getRegions().catRegionSize());
+        assertEquals(distance, field.getBorderDistances().distance(4, 4));
+    }
+
+    @Test
+    public void undoTouchesOnlyChangedCells() {
+        Field field = Field.rectangle(200, 200);
+        Game game = new Game(field, true);
+        game.placeCat(100, 100);
+        game.block(0, 0);
+
+        byte[] before = field.getChangeLog().snapshot();
+        field.getChangeLog().delta();
+        game.undo();
+        byte[] delta = field.getChangeLog().delta();
+        // Блокировка и ход Кота: три Ячейки
+        assertTrue(delta.length < 16);
+        game.redo();
+        field.getChangeLog().delta();
+        assertArrayEquals(before, field.getChangeLog().snapshot());
+    }
+}
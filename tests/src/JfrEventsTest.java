@@ -0,0 +1,139 @@
+import items.Cat;
+import items.Field;
+import items.Game;
+import items.ParallelSolver;
+import items.Side;
+import items.Solver;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JfrEventsTest {
+    @TempDir
+    Path dir;
+
+    private List<RecordedEvent> record(String name, Runnable action) throws IOException {
+        Path file = dir.resolve(name + ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(name).withoutThreshold();
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        return RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals(name))
+                .toList();
+    }
+
+    private Field createFieldWithCat(int size, int catX, int catY) {
+        Field field = Field.rectangle(size, size);
+        field.setCat(new Cat(field.cellAt(catX, catY)));
+        return field;
+    }
+
+    @Test
+    public void turnEvents() throws IOException {
+        Game game = new Game(Field.rectangle(11, 9), Game.SHORTEST_PATH, Game.BLOCK_NEXT_STEP);
+        game.placeCat(5, 4);
+        List<RecordedEvent> events = record("items.Turn", game::start);
+
+        assertEquals(game.getTurns(), events.size());
+        RecordedEvent last = events.get(events.size() - 1);
+        assertEquals(11, last.getInt("sideX"));
+        assertEquals(9, last.getInt("sideY"));
+        assertEquals(game.getTurns(), last.getInt("turn"));
+        assertEquals(game.getStatus().name(), last.getString("status"));
+        assertFalse(last.getDuration().isNegative());
+    }
+
+    @Test
+    public void rejectedBlockRecordsNoTurn() throws IOException {
+        // Блокирующий игрок выбирает Ячейку Кота, и ход отклоняется
+        Game game = new Game(Field.rectangle(7, 7), Game.SHORTEST_PATH, field -> field.getCat().getCell());
+        game.placeCat(3, 3);
+        List<RecordedEvent> events = record("items.Turn",
+                () -> assertThrows(IllegalStateException.class, game::start));
+
+        assertEquals(0, game.getTurns());
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    public void catMoveEvent() throws IOException {
+        Field field = createFieldWithCat(7, 3, 3);
+        List<RecordedEvent> events = record("items.CatMove", () -> field.getCat().move(Side.RIGHT));
+
+        assertEquals(1, events.size());
+        RecordedEvent event = events.get(0);
+        assertEquals("RIGHT", event.getString("side"));
+        assertEquals(3, event.getInt("fromX"));
+        assertEquals(field.getCat().getCell().X(), event.getInt("toX"));
+        assertEquals(field.getCat().getCell().Y(), event.getInt("toY"));
+        assertEquals(7, event.getInt("sideX"));
+    }
+
+    @Test
+    public void cellChangeEvents() throws IOException {
+        Field field = Field.rectangle(5, 5);
+        List<RecordedEvent> events = record("items.CellChange", () -> {
+            field.cellAt(1, 2).block(true);
+            field.cellAt(2, 2).freeze(true);
+            field.cellAt(3, 2).destroy();
+        });
+
+        assertEquals(List.of("block", "freeze", "destroy"),
+                events.stream().map(event -> event.getString("action")).toList());
+        assertEquals(1, events.get(0).getInt("x"));
+        assertEquals(2, events.get(0).getInt("y"));
+        assertTrue(events.get(0).getBoolean("value"));
+    }
+
+    @Test
+    public void statusCheckEvents() throws IOException {
+        Game game = new Game(Field.rectangle(7, 7), Game.SHORTEST_PATH, Game.BLOCK_NEXT_STEP);
+        game.placeCat(3, 3);
+        List<RecordedEvent> events = record("items.StatusCheck", game::start);
+
+        assertFalse(events.isEmpty());
+        assertEquals(game.getStatus().name(), events.get(events.size() - 1).getString("status"));
+    }
+
+    @Test
+    public void solverIterationEvents() throws IOException {
+        Field field = createFieldWithCat(9, 4, 4);
+        List<RecordedEvent> events = record("items.SearchIteration", () -> new Solver(10).solve(field, 3, 0));
+
+        assertFalse(events.isEmpty());
+        long nodes = 0;
+        for (int i = 0; i < events.size(); i++) {
+            RecordedEvent event = events.get(i);
+            assertEquals(i + 1, event.getInt("depth"));
+            assertEquals(1, event.getInt("threads"));
+            assertEquals(9, event.getInt("sideY"));
+            assertTrue(event.getLong("nodes") >= nodes);
+            nodes = event.getLong("nodes");
+        }
+    }
+
+    @Test
+    public void parallelSolverIterationEvents() throws IOException {
+        Field field = createFieldWithCat(9, 4, 4);
+        ParallelSolver solver = new ParallelSolver(2, 10);
+        try {
+            List<RecordedEvent> events = record("items.SearchIteration", () -> solver.solve(field, 2, 0));
+            assertFalse(events.isEmpty());
+            assertEquals(2, events.get(0).getInt("threads"));
+        } finally {
+            solver.shutdown();
+        }
+    }
+}
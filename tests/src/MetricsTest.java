@@ -0,0 +1,154 @@
+import items.Field;
+import items.Game;
+import items.LatencyHistogram;
+import items.Metrics;
+import items.MetricsServer;
+import items.Side;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MetricsTest {
+    /**
+     * Сыграть партии и вернуть число ходов, решений Кота и ходов Кота
+     */
+    private static int[] playGames(int games) {
+        int[] counts = new int[3];
+        Game.CatPlayer cat = field -> {
+            counts[1]++;
+            Side move = Game.SHORTEST_PATH.move(field);
+            if (move != null) counts[2]++;
+            return move;
+        };
+        Game game = new Game(Field.rectangle(21, 21), cat, Game.BLOCK_NEXT_STEP);
+        for (int i = 0; i < games; i++) {
+            game.reset(null);
+            game.placeCat(10, 10);
+            game.start();
+            counts[0] += game.getTurns();
+        }
+        return counts;
+    }
+
+    @Test
+    public void disabledRecordsNothing() {
+        Metrics.setEnabled(false);
+        Metrics.reset();
+        playGames(50);
+        for (LatencyHistogram histogram : Metrics.all()) {
+            assertEquals(0, histogram.getCalls(), histogram.getName());
+            assertEquals(0, histogram.getCount(), histogram.getName());
+        }
+    }
+
+    @Test
+    public void enabledCountsEveryCall() {
+        int games = 400;
+        Metrics.setEnabled(true);
+        Metrics.reset();
+        int[] counts;
+        try {
+            counts = playGames(games);
+        } finally {
+            Metrics.setEnabled(false);
+        }
+        int turns = counts[0], decisions = counts[1], moves = counts[2];
+        assertEquals(turns, Metrics.TURN.getCalls());
+        assertEquals(turns, Metrics.BLOCKER_DECISION.getCalls());
+        assertEquals(decisions, Metrics.CAT_DECISION.getCalls());
+        assertEquals(moves, Metrics.CAT_MOVE.getCalls());
+        // Сброс при создании Поля и перед каждой партией
+        assertEquals(games + 1, Metrics.BOARD_RESET.getCalls());
+        // Проверка итога после постановки Кота, после блокировки и после хода Кота
+        assertEquals(games + turns + decisions, Metrics.CAT_ON_BORDER.getCalls());
+        assertTrue(Metrics.CAT_CLOSED.getCalls() > 0);
+
+        // Длительность замеряется у выборки, в среднем у каждого 32-го вызова
+        long sampled = Metrics.TURN.getCount();
+        assertTrue(sampled > turns / 32 / 2 && sampled < turns / 32 * 2, "Замеров: " + sampled);
+        assertTrue(Metrics.TURN.getP50() > 0);
+        assertTrue(Metrics.TURN.getP50() <= Metrics.TURN.getP99());
+        assertTrue(Metrics.TURN.getP99() <= Metrics.TURN.getMax());
+    }
+
+    @Test
+    public void failedCallsAreNotCounted() {
+        Field field = Field.rectangle(7, 7);
+        // Блокирующий игрок выбирает Ячейку Кота, и блокировка отклоняется
+        Game game = new Game(field, Game.SHORTEST_PATH, f -> f.getCat().getCell());
+        game.placeCat(3, 3);
+        field.cellAt(4, 3).block(true);
+        Metrics.setEnabled(true);
+        Metrics.reset();
+        try {
+            assertThrows(IllegalStateException.class, game::start);
+            assertThrows(IllegalStateException.class, () -> field.getCat().move(Side.RIGHT));
+        } finally {
+            Metrics.setEnabled(false);
+        }
+        assertEquals(0, Metrics.TURN.getCalls());
+        assertEquals(0, Metrics.CAT_MOVE.getCalls());
+    }
+
+    @Test
+    public void histogramPercentiles() {
+        LatencyHistogram histogram = Metrics.CAT_DECISION;
+        histogram.reset();
+        for (int i = 1; i <= 10_000; i++) histogram.record(i * 1000L);
+
+        assertEquals(10_000, histogram.getCount());
+        assertEquals(10_000_000, histogram.getMax());
+        assertEquals(5_000_500, histogram.getMean(), 1);
+        assertEquals(5_000_000, histogram.getP50(), 5_000_000 / 64.0);
+        assertEquals(9_900_000, histogram.getP99(), 9_900_000 / 64.0);
+        assertEquals(9_990_000, histogram.getP999(), 9_990_000 / 64.0);
+
+        histogram.reset();
+        histogram.record(7);
+        assertEquals(7, histogram.getP50());
+        assertEquals(0, histogram.getCalls());
+        histogram.reset();
+        assertEquals(0, histogram.getP99());
+    }
+
+    @Test
+    public void textEndpoint() throws IOException {
+        Metrics.reset();
+        Metrics.TURN.record(1500);
+        try (MetricsServer server = new MetricsServer(0)) {
+            HttpURLConnection connection = (HttpURLConnection) URI.create("http://127.0.0.1:" + server.getPort() + "/metrics").toURL().openConnection();
+            assertEquals(200, connection.getResponseCode());
+            String body;
+            try (InputStream in = connection.getInputStream()) {
+                body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            assertTrue(body.contains("catgame_turn_nanos_count 1\n"), body);
+            assertTrue(body.contains("catgame_turn_nanos{quantile=\"0.5\"} "), body);
+            assertTrue(body.contains("catgame_cat_move_calls_total 0\n"), body);
+            // Наибольший замер - отдельная метрика, а не образец сводки
+            assertTrue(body.contains("# TYPE catgame_turn_nanos_max gauge\ncatgame_turn_nanos_max 1500\n"), body);
+        }
+    }
+
+    @Test
+    public void jmx() throws Exception {
+        Metrics.registerMBeans();
+        Metrics.registerMBeans();
+        Metrics.reset();
+        Metrics.CAT_MOVE.record(42);
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName("items:type=Metrics,name=cat_move");
+        assertEquals(1L, server.getAttribute(name, "Count"));
+        assertEquals(42L, server.getAttribute(name, "Max"));
+    }
+}
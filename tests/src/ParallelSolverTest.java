@@ -0,0 +1,71 @@
+import items.Cat;
+import items.Field;
+import items.ParallelSolver;
+import items.Solver;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelSolverTest {
+    private Field createFieldWithCat(int size, int catX, int catY) {
+        Field field = Field.rectangle(size, size);
+        field.setCat(new Cat(field.cellAt(catX, catY)));
+        return field;
+    }
+
+    @Test
+    public void createWithoutThreads() {
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> new ParallelSolver(0, 10));
+        assertEquals("Число потоков должно быть больше нуля!", exception.getMessage());
+    }
+
+    @Test
+    public void solveWithoutCat() {
+        ParallelSolver solver = new ParallelSolver(2, 10);
+        assertThrows(NullPointerException.class, () -> solver.solve(Field.rectangle(5, 5), 2, 0));
+        solver.shutdown();
+    }
+
+    @Test
+    public void blocksLastExit() {
+        Field field = createFieldWithCat(7, 3, 3);
+        field.cellAt(2, 3).block(true);
+        field.cellAt(4, 3).block(true);
+        field.cellAt(3, 2).block(true);
+        ParallelSolver solver = new ParallelSolver(4, 12);
+        Solver.Result result = solver.solve(field, 3, 0);
+        solver.shutdown();
+
+        assertEquals(3, result.getX());
+        assertEquals(4, result.getY());
+        assertEquals(Solver.Outcome.BLOCKER_WINS, result.getOutcome());
+    }
+
+    @Test
+    public void agreesWithSequentialSolver() {
+        Field field = createFieldWithCat(9, 4, 4);
+        field.cellAt(4, 2).block(true);
+        field.cellAt(2, 5).block(true);
+        field.cellAt(6, 4).block(true);
+
+        Solver.Result sequential = new Solver(16).solve(field, 3, 0);
+        ParallelSolver solver = new ParallelSolver(4, 16);
+        Solver.Result parallel = solver.solve(field, 3, 0);
+        solver.shutdown();
+
+        assertEquals(sequential.getScore(), parallel.getScore());
+        assertEquals(sequential.getOutcome(), parallel.getOutcome());
+        assertTrue(parallel.getNodes() > 0);
+    }
+
+    @Test
+    public void catOnBorderAlreadyEscaped() {
+        ParallelSolver solver = new ParallelSolver(2, 10);
+        Solver.Result result = solver.solve(createFieldWithCat(5, 4, 1), 3, 0);
+        solver.shutdown();
+
+        assertFalse(result.hasMove());
+        assertEquals(Solver.Outcome.CAT_WINS, result.getOutcome());
+    }
+}
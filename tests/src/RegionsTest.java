@@ -0,0 +1,133 @@
+import items.Cat;
+import items.Cell;
+import items.Field;
+import items.Regions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RegionsTest {
+    // Вспомогательный метод: запечатывает карман 3x2 с левым верхним углом в (1, 1)
+    private void sealPocket(Field field) {
+        for (int x = 1; x <= 3; x++) {
+            field.cellAt(x, 0).block(true);
+            field.cellAt(x, 3).block(true);
+        }
+        for (int y = 1; y <= 2; y++) {
+            field.cellAt(0, y).block(true);
+            field.cellAt(4, y).block(true);
+        }
+    }
+
+    @Test
+    public void wholeFieldIsOneRegion() {
+        Regions regions = Field.rectangle(6, 5).getRegions();
+
+        assertEquals(30, regions.regionSize(0, 0));
+        assertEquals(30, regions.regionSize(3, 2));
+        assertTrue(regions.reachesBorder(3, 2));
+    }
+
+    @Test
+    public void closedCellHasNoRegion() {
+        Field field = Field.rectangle(5, 5);
+        field.cellAt(2, 2).block(true);
+
+        assertEquals(0, field.getRegions().regionSize(2, 2));
+        assertFalse(field.getRegions().reachesBorder(2, 2));
+        assertEquals(0, field.getRegions().regionSize(5, 5));
+    }
+
+    @Test
+    public void sealedPocketSplitsOff() {
+        Field field = Field.rectangle(6, 6);
+        Regions regions = field.getRegions();
+        sealPocket(field);
+
+        assertEquals(6, regions.regionSize(2, 2));
+        assertFalse(regions.reachesBorder(2, 2));
+        assertEquals(36 - 6 - 10 - 1, regions.regionSize(5, 5));
+        assertTrue(regions.reachesBorder(5, 5));
+        // Угол (0, 0) тоже отрезан стенками кармана
+        assertEquals(1, regions.regionSize(0, 0));
+    }
+
+    @Test
+    public void openingCellMergesRegions() {
+        Field field = Field.rectangle(6, 6);
+        Regions regions = field.getRegions();
+        sealPocket(field);
+        field.cellAt(4, 2).block(false);
+
+        assertEquals(36 - 9 - 1, regions.regionSize(2, 2));
+        assertTrue(regions.reachesBorder(2, 2));
+    }
+
+    @Test
+    public void catInSealedPocketIsClosed() {
+        Field field = Field.rectangle(6, 6);
+        field.setCat(new Cat(field.cellAt(2, 2)));
+        assertFalse(field.isCatClosed());
+
+        sealPocket(field);
+        assertTrue(field.getCat().isFunctional());
+        assertTrue(field.isCatClosed());
+        assertEquals(6, field.getRegions().catRegionSize());
+        assertFalse(field.getRegions().canCatEscape());
+    }
+
+    @Test
+    public void catRegionWithoutCat() {
+        Field field = Field.rectangle(5, 5);
+        assertThrows(NullPointerException.class, () -> field.getRegions().canCatEscape());
+    }
+
+    @Test
+    public void incrementalRegionsMatchFullRebuild() {
+        Random random = new Random(7);
+        Field field = Field.rectangle(14, 11);
+        Regions regions = field.getRegions();
+
+        for (int i = 0; i < 600; i++) {
+            Cell cell = field.cellAt(random.nextInt(14), random.nextInt(11));
+            if (cell.isDestroyed()) continue;
+            switch (random.nextInt(5)) {
+                case 0, 1 -> cell.block(!cell.isBlocked());
+                case 2, 3 -> cell.freeze(!cell.isFrozen());
+                default -> {
+                    if (random.nextInt(8) == 0) cell.destroy();
+                }
+            }
+            if (i % 25 != 0) continue;
+
+            Field copy = Field.rectangle(14, 11);
+            for (int y = 0; y < 11; y++) {
+                for (int x = 0; x < 14; x++) {
+                    Cell source = field.cellAt(x, y);
+                    if (source.isDestroyed()) copy.cellAt(x, y).destroy();
+                    else copy.cellAt(x, y).block(source.isBlocked() || source.isFrozen());
+                }
+            }
+            for (int y = 0; y < 11; y++) {
+                for (int x = 0; x < 14; x++) {
+                    assertEquals(copy.getRegions().regionSize(x, y), regions.regionSize(x, y));
+                    assertEquals(copy.getRegions().reachesBorder(x, y), regions.reachesBorder(x, y));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void splitAfterResetKeepsSizes() {
+        Field field = Field.rectangle(7, 7);
+        Regions regions = field.getRegions();
+        for (int y = 0; y < 7; y++) field.cellAt(3, y).block(true);
+        field.reset(null);
+        for (int y = 0; y < 7; y++) field.cellAt(2, y).block(true);
+
+        assertEquals(14, regions.regionSize(0, 0));
+        assertEquals(28, regions.regionSize(6, 0));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,178 @@
+import items.Field;
+import items.Game;
+import items.Replay;
+import items.ReplayArchive;
+import items.ReplayRecorder;
+import items.ReplayStatistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReplayArchiveTest {
+    @TempDir
+    Path directory;
+
+    /**
+     * Сводка, посчитанная по живым партиям
+     */
+    private static final class Expected {
+        final int sideX, sideY;
+        final long[] blocks, exits;
+        long games, escapes, caught, escapeTurns;
+
+        Expected(int sideX, int sideY) {
+            this.sideX = sideX;
+            this.sideY = sideY;
+            blocks = new long[sideX * sideY];
+            exits = new long[sideX * sideY];
+        }
+    }
+
+    private static void play(Game game, Random random, Expected expected) {
+        Field field = game.getField();
+        game.reset(null);
+        game.placeCat(expected.sideX / 2, expected.sideY / 2);
+        while (game.getStatus() == Game.Status.IN_PROGRESS) {
+            int x = random.nextInt(expected.sideX), y = random.nextInt(expected.sideY);
+            if (!game.canBlock(x, y)) continue;
+            game.block(x, y);
+            expected.blocks[y * expected.sideX + x]++;
+        }
+        expected.games++;
+        if (game.getStatus() == Game.Status.CAT_CAUGHT) {
+            expected.caught++;
+            return;
+        }
+        expected.escapes++;
+        expected.escapeTurns += game.getTurns();
+        expected.exits[field.getCat().getCell().Y() * expected.sideX + field.getCat().getCell().X()]++;
+    }
+
+    /**
+     * Записать партии на двух размерах Поля вперемешку
+     */
+    private Expected[] write(Path file, int games) throws IOException {
+        Expected[] expected = {new Expected(7, 7), new Expected(15, 11)};
+        Random random = new Random(5);
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+            ReplayRecorder recorder = new ReplayRecorder(out);
+            Game[] played = new Game[expected.length];
+            for (int i = 0; i < expected.length; i++) {
+                played[i] = new Game(Field.rectangle(expected[i].sideX, expected[i].sideY));
+                played[i].addListener(recorder);
+            }
+            for (int i = 0; i < games; i++) play(played[i % 2], random, expected[i % 2]);
+        }
+        return expected;
+    }
+
+    private static void check(Expected expected, ReplayStatistics statistics) {
+        ReplayStatistics.Summary summary = statistics.getSummary(expected.sideX, expected.sideY);
+        assertEquals(expected.games, summary.getGames());
+        assertEquals(expected.escapes, summary.getCatEscapes());
+        assertEquals(expected.caught, summary.getCatCaught());
+        assertEquals((double) expected.escapeTurns / expected.escapes, summary.getAverageEscapeTurns(), 1e-9);
+        for (int y = 0; y < expected.sideY; y++) {
+            for (int x = 0; x < expected.sideX; x++) {
+                assertEquals(expected.blocks[y * expected.sideX + x], summary.getBlocks(x, y));
+                assertEquals(expected.exits[y * expected.sideX + x], summary.getEscapes(x, y));
+            }
+        }
+    }
+
+    @Test
+    public void parallelAggregation() throws IOException {
+        Path file = directory.resolve("games.catr");
+        Expected[] expected = write(file, 2000);
+
+        ReplayArchive archive = new ReplayArchive(file, 1024);
+        assertEquals(2000, archive.getGames());
+        assertEquals(Files.size(file), archive.getSize());
+        assertTrue(archive.getSegments() > 10);
+
+        ReplayStatistics statistics = archive.aggregate(ReplayStatistics::new, ReplayStatistics::add, ReplayStatistics::merge);
+        assertEquals(2000, statistics.getGames());
+        assertEquals(2, statistics.getSummaries().size());
+        for (Expected e : expected) check(e, statistics);
+        assertNull(statistics.getSummary(8, 8));
+    }
+
+    @Test
+    public void sequentialMatchesParallel() throws IOException {
+        Path file = directory.resolve("games.catr");
+        Expected[] expected = write(file, 300);
+
+        ReplayStatistics statistics = new ReplayStatistics();
+        long[] turns = new long[1];
+        ReplayArchive archive = new ReplayArchive(file);
+        assertEquals(1, archive.getSegments());
+        archive.forEach(replay -> {
+            statistics.add(replay);
+            turns[0] += replay.getTurns();
+        });
+        for (Expected e : expected) check(e, statistics);
+        assertEquals(Arrays.stream(expected).mapToLong(e -> Arrays.stream(e.blocks).sum()).sum(), turns[0]);
+    }
+
+    @Test
+    public void emptyArchive() throws IOException {
+        Path file = directory.resolve("empty.catr");
+        new ReplayRecorder(Files.newOutputStream(file)).flush();
+
+        ReplayArchive archive = new ReplayArchive(file);
+        assertEquals(0, archive.getGames());
+        assertEquals(0, archive.getSegments());
+        assertEquals(0, archive.aggregate(ReplayStatistics::new, ReplayStatistics::add, ReplayStatistics::merge).getGames());
+    }
+
+    @Test
+    public void truncatedArchive() throws IOException {
+        Path file = directory.resolve("games.catr");
+        write(file, 10);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 3));
+
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> new ReplayArchive(file));
+        assertEquals("Запись партии обрывается!", exception.getMessage());
+    }
+
+    @Test
+    public void notAnArchive() throws IOException {
+        Path file = directory.resolve("text.txt");
+        Files.writeString(file, "hello");
+
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> new ReplayArchive(file));
+        assertEquals("Это не файл записей партий!", exception.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> new ReplayArchive(file, 0));
+    }
+
+    @Test
+    public void recordsReadFromMapping() throws IOException {
+        Path file = directory.resolve("games.catr");
+        write(file, 4);
+
+        Replay[] first = new Replay[1];
+        new ReplayArchive(file).forEach(replay -> {
+            if (first[0] == null) first[0] = replay;
+        });
+        assertEquals(7, first[0].getSideX());
+        assertEquals(3, first[0].getCatStartX());
+        int[] cat = {first[0].getCatStartX(), first[0].getCatStartY()};
+        first[0].forEachTurn((turn, blockX, blockY, catX, catY) -> {
+            cat[0] = catX;
+            cat[1] = catY;
+        });
+        Field field = first[0].fieldAt(first[0].getTurns());
+        assertEquals(cat[0], field.getCat().getCell().X());
+        assertEquals(cat[1], field.getCat().getCell().Y());
+    }
+}
@@ -0,0 +1,210 @@
+import items.Field;
+import items.Game;
+import items.Replay;
+import items.ReplayRecorder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReplayTest {
+    /**
+     * Партия со случайной блокировкой; хеши Поля после каждого хода
+     */
+    private List<Long> playRandomGame(Game game, Random random, int catX, int catY) {
+        List<Long> hashes = new ArrayList<>();
+        game.placeCat(catX, catY);
+        hashes.add(game.getField().getHash());
+        while (game.getStatus() == Game.Status.IN_PROGRESS) {
+            int x = random.nextInt(game.getField().getSideX()), y = random.nextInt(game.getField().getSideY());
+            if (!game.canBlock(x, y)) continue;
+            game.block(x, y);
+            hashes.add(game.getField().getHash());
+        }
+        return hashes;
+    }
+
+    @Test
+    public void wrongHeader() {
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> Replay.readHeader(ByteBuffer.wrap(new byte[] {'C', 'A', 'T', 'S', 1})));
+        assertEquals("Это не файл записей партий!", exception.getMessage());
+    }
+
+    @Test
+    public void emptyStream() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new ReplayRecorder(out);
+        ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+        Replay.readHeader(buffer);
+        assertNull(Replay.read(buffer));
+    }
+
+    @Test
+    public void shortGameIsSmall() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Game game = new Game(Field.rectangle(11, 11));
+        game.addListener(new ReplayRecorder(out));
+        game.placeCat(5, 5);
+        game.block(0, 0);
+        game.block(10, 10);
+
+        assertEquals(5, out.size());
+        game.reset(null);
+        assertTrue(out.size() <= 5 + 16);
+
+        ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+        Replay.readHeader(buffer);
+        Replay replay = Replay.read(buffer);
+        assertEquals(Game.Status.IN_PROGRESS, replay.getStatus());
+        assertEquals(2, replay.getTurns());
+        assertEquals(5, replay.getCatStartX());
+        assertTrue(replay.fieldAt(2).cellAt(10, 10).isBlocked());
+    }
+
+    @Test
+    public void replayRestoresEveryTurn() {
+        Random random = new Random(3);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        boolean[] obstacles = new boolean[81 * 75];
+        for (int i = 0; i < obstacles.length; i++) obstacles[i] = random.nextInt(10) == 0;
+        obstacles[37 * 81 + 40] = false;
+        Field field = Field.rectangle(81, 75, obstacles);
+        Game game = new Game(field);
+        game.addListener(new ReplayRecorder(out));
+
+        List<List<Long>> games = new ArrayList<>();
+        games.add(playRandomGame(game, random, 40, 37));
+        game.reset(obstacles);
+        games.add(playRandomGame(game, random, 40, 37));
+
+        ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+        Replay.readHeader(buffer);
+        for (List<Long> hashes : games) {
+            Replay replay = Replay.read(buffer);
+            assertEquals(hashes.size() - 1, replay.getTurns());
+            assertTrue(replay.getTurns() > 32);
+            for (int turn = 0; turn <= replay.getTurns(); turn++) {
+                assertEquals(hashes.get(turn), replay.fieldAt(turn).getHash(), "Ход " + turn);
+            }
+        }
+        assertNull(Replay.read(buffer));
+    }
+
+    @Test
+    public void finishedGameStatusAndTurns() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Game game = new Game(Field.rectangle(7, 7), Game.SHORTEST_PATH, Game.BLOCK_NEXT_STEP);
+        game.addListener(new ReplayRecorder(out));
+        game.placeCat(3, 3);
+        game.start();
+
+        ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+        Replay.readHeader(buffer);
+        Replay replay = Replay.read(buffer);
+        assertEquals(game.getStatus(), replay.getStatus());
+        assertEquals(game.getTurns(), replay.getTurns());
+
+        int[] last = new int[3];
+        replay.forEachTurn((turn, blockX, blockY, catX, catY) -> {
+            last[0] = turn;
+            last[1] = catX;
+            last[2] = catY;
+        });
+        assertEquals(game.getTurns(), last[0]);
+        assertEquals(game.getField().getCat().getCell().X(), last[1]);
+        assertEquals(game.getField().getCat().getCell().Y(), last[2]);
+    }
+
+    @Test
+    public void seekOutOfGame() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Game game = new Game(Field.rectangle(5, 5));
+        game.addListener(new ReplayRecorder(out));
+        game.placeCat(2, 2);
+        game.reset(null);
+
+        ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+        Replay.readHeader(buffer);
+        Replay replay = Replay.read(buffer);
+        assertThrows(IndexOutOfBoundsException.class, () -> replay.fieldAt(1));
+    }
+
+    /**
+     * Поток из заголовка и одной записи: длина и байты записи заданы как есть
+     */
+    private ByteBuffer stream(int... record) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new ReplayRecorder(out);
+        for (int b : record) out.write(b);
+        ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+        Replay.readHeader(buffer);
+        return buffer;
+    }
+
+    private void assertCorrupted(Executable action) {
+        Exception exception = assertThrows(IllegalArgumentException.class, action);
+        assertEquals("Запись партии повреждена!", exception.getMessage());
+    }
+
+    @Test
+    public void negativeLength() {
+        // Пятибайтовое число -1
+        ByteBuffer buffer = stream(0xFF, 0xFF, 0xFF, 0xFF, 0x0F, 5, 5, 0, 12, 1, 0, 16);
+        assertCorrupted(() -> Replay.read(buffer));
+    }
+
+    @Test
+    public void obstacleOutsideField() {
+        // Поле 5x5, одно препятствие с индексом 30
+        assertCorrupted(() -> Replay.read(stream(8, 5, 5, 1, 30, 12, 1, 0, 16)));
+    }
+
+    @Test
+    public void catOutsideField() {
+        assertCorrupted(() -> Replay.read(stream(7, 5, 5, 0, 25, 1, 0, 16)));
+    }
+
+    @Test
+    public void blockOutsideField() {
+        // Один ход: Ячейка 25 (код 25 << 3 = 200, два байта), Кот не ходил
+        Replay replay = Replay.read(stream(9, 5, 5, 0, 12, 1, 1, 16, 0xCC, 0x01));
+        assertCorrupted(() -> replay.forEachTurn((turn, blockX, blockY, catX, catY) -> {}));
+        assertCorrupted(() -> replay.fieldAt(1));
+    }
+
+    @Test
+    public void unknownCatMove() {
+        // Один ход: Ячейка 0, код направления 6
+        Replay replay = Replay.read(stream(8, 5, 5, 0, 12, 1, 1, 16, 6));
+        assertCorrupted(() -> replay.forEachTurn((turn, blockX, blockY, catX, catY) -> {}));
+        assertCorrupted(() -> replay.fieldAt(1));
+    }
+
+    @Test
+    public void missingMoves() {
+        Replay replay = Replay.read(stream(7, 5, 5, 0, 12, 1, 1, 16));
+        assertCorrupted(() -> replay.fieldAt(1));
+    }
+
+    @Test
+    public void truncatedRecord() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Game game = new Game(Field.rectangle(5, 5));
+        game.addListener(new ReplayRecorder(out));
+        game.placeCat(2, 2);
+        game.reset(null);
+        byte[] bytes = out.toByteArray();
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, bytes.length - 1);
+        Replay.readHeader(buffer);
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> Replay.read(buffer));
+        assertEquals("Запись партии обрывается!", exception.getMessage());
+    }
+}
@@ -0,0 +1,60 @@
+import items.Game;
+import items.Simulator;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SimulatorTest {
+    private Simulator createSimulator(double density) {
+        return new Simulator(11, 11, density, () -> Game.SHORTEST_PATH, () -> Game.BLOCK_NEXT_STEP);
+    }
+
+    @Test
+    public void createWithWrongDensity() {
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> createSimulator(1.5));
+        assertEquals("Доля препятствий должна быть от 0 до 1!", exception.getMessage());
+    }
+
+    @Test
+    public void createWithSmallField() {
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> new Simulator(3, 11, 0, () -> Game.SHORTEST_PATH, () -> Game.BLOCK_NEXT_STEP));
+        assertEquals("Длина поля должна быть больше трех!", exception.getMessage());
+    }
+
+    @Test
+    public void runWithoutThreads() {
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> createSimulator(0.1).run(10, 0, 1));
+        assertEquals("Число потоков должно быть больше нуля!", exception.getMessage());
+    }
+
+    @Test
+    public void emptyFieldCatAlwaysEscapes() {
+        Simulator.Statistics statistics = createSimulator(0).run(100, 2, 1);
+        assertEquals(100, statistics.getGames());
+        assertEquals(100, statistics.getCatWins());
+        assertEquals(0.0, statistics.getWinRate());
+        assertTrue(statistics.getAverageLength() >= 5);
+    }
+
+    @Test
+    public void fullFieldCatAlwaysCaught() {
+        Simulator.Statistics statistics = createSimulator(1).run(50, 2, 1);
+        assertEquals(50, statistics.getBlockerWins());
+        assertEquals(0.0, statistics.getAverageLength());
+    }
+
+    @Test
+    public void resultDoesNotDependOnThreads() {
+        Simulator simulator = createSimulator(0.2);
+        Simulator.Statistics single = simulator.run(2000, 1, 42);
+        Simulator.Statistics parallel = simulator.run(2000, 4, 42);
+
+        assertEquals(single.getBlockerWins(), parallel.getBlockerWins());
+        assertEquals(single.getAverageLength(), parallel.getAverageLength());
+        assertTrue(single.getBlockerWins() > 0 && single.getCatWins() > 0);
+        assertTrue(parallel.getGamesPerSecond() > 0);
+    }
+}
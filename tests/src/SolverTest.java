@@ -0,0 +1,104 @@
+import items.Cat;
+import items.Field;
+import items.Solver;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SolverTest {
+    private Field createFieldWithCat(int size, int catX, int catY) {
+        Field field = Field.rectangle(size, size);
+        field.setCat(new Cat(field.cellAt(catX, catY)));
+        return field;
+    }
+
+    @Test
+    public void createSolverWithWrongTable() {
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> new Solver(0));
+        assertEquals("Размер таблицы должен быть от 2^1 до 2^30!", exception.getMessage());
+    }
+
+    @Test
+    public void solveWithoutCat() {
+        Exception exception = assertThrows(NullPointerException.class,
+                () -> new Solver(10).solve(Field.rectangle(5, 5), 2, 0));
+        assertEquals("Невозможно искать ход без кота!", exception.getMessage());
+    }
+
+    @Test
+    public void solveWithZeroDepth() {
+        Field field = createFieldWithCat(5, 2, 2);
+        assertThrows(IllegalArgumentException.class, () -> new Solver(10).solve(field, 0, 0));
+    }
+
+    @Test
+    public void catOnBorderAlreadyEscaped() {
+        Solver.Result result = new Solver(10).solve(createFieldWithCat(5, 0, 2), 3, 0);
+
+        assertFalse(result.hasMove());
+        assertEquals(Solver.Outcome.CAT_WINS, result.getOutcome());
+    }
+
+    @Test
+    public void blocksLastExit() {
+        Field field = createFieldWithCat(7, 3, 3);
+        field.cellAt(2, 3).block(true);
+        field.cellAt(4, 3).block(true);
+        field.cellAt(3, 2).block(true);
+        Solver.Result result = new Solver(10).solve(field, 3, 0);
+
+        assertTrue(result.hasMove());
+        assertEquals(3, result.getX());
+        assertEquals(4, result.getY());
+        assertEquals(Solver.Outcome.BLOCKER_WINS, result.getOutcome());
+        assertEquals(1, result.getDepth());
+    }
+
+    @Test
+    public void catNextToBorderWithTwoExitsEscapes() {
+        Field field = createFieldWithCat(7, 1, 1);
+        Solver.Result result = new Solver(12).solve(field, 3, 0);
+        assertEquals(Solver.Outcome.CAT_WINS, result.getOutcome());
+    }
+
+    @Test
+    public void findsTrapInTwoMoves() {
+        // Кот в коридоре: блокировка одного конца оставляет ему единственный ход в тупик
+        Field field = createFieldWithCat(7, 3, 3);
+        field.cellAt(3, 2).block(true);
+        field.cellAt(3, 4).block(true);
+        field.cellAt(2, 2).block(true);
+        field.cellAt(2, 4).block(true);
+        field.cellAt(4, 2).block(true);
+        field.cellAt(4, 4).block(true);
+        field.cellAt(1, 3).block(true);
+        Solver.Result result = new Solver(12).solve(field, 4, 0);
+
+        assertEquals(Solver.Outcome.BLOCKER_WINS, result.getOutcome());
+        assertEquals(4, result.getX());
+        assertEquals(3, result.getY());
+    }
+
+    @Test
+    public void solveDoesNotChangeField() {
+        Field field = createFieldWithCat(7, 3, 3);
+        new Solver(12).solve(field, 3, 0);
+
+        for (int y = 0; y < 7; y++) {
+            for (int x = 0; x < 7; x++) {
+                assertFalse(field.cellAt(x, y).isBlocked());
+            }
+        }
+        assertEquals(field.cellAt(3, 3), field.getCat().getCell());
+    }
+
+    @Test
+    public void timeLimitStillGivesMove() {
+        Field field = createFieldWithCat(11, 5, 5);
+        Solver.Result result = new Solver(16).solve(field, 50, 50);
+
+        assertTrue(result.hasMove());
+        assertFalse(field.cellAt(result.getX(), result.getY()).isOccupied());
+    }
+}
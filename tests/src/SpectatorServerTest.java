@@ -0,0 +1,103 @@
+import items.BoardReplica;
+import items.Cat;
+import items.Field;
+import items.Side;
+import items.SpectatorServer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SpectatorServerTest {
+    /**
+     * Читать кадры, пока копия не совпадет с Полем
+     */
+    private void follow(InputStream in, ByteBuffer buffer, BoardReplica replica, Field field) throws IOException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!same(field, replica)) {
+            assertTrue(System.currentTimeMillis() < deadline, "Копия поля не догнала поле");
+            int read = in.read(buffer.array(), buffer.position(), buffer.remaining());
+            assertTrue(read > 0);
+            buffer.position(buffer.position() + read);
+            buffer.flip();
+            while (replica.apply(buffer)) {
+            }
+            buffer.compact();
+        }
+    }
+
+    private boolean same(Field field, BoardReplica replica) {
+        if (!replica.isSynced()) return false;
+        for (int y = 0; y < field.getSideY(); y++) {
+            for (int x = 0; x < field.getSideX(); x++) {
+                if (field.cellAt(x, y).isBlocked() != replica.isBlocked(x, y)) return false;
+                if (field.cellAt(x, y).isOccupied() != replica.isOccupied(x, y)) return false;
+            }
+        }
+        return true;
+    }
+
+    private void waitForSpectators(SpectatorServer server, int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (server.getSpectators() != count) {
+            assertTrue(System.currentTimeMillis() < deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    public void createWithoutField() {
+        Exception exception = assertThrows(NullPointerException.class,
+                () -> new SpectatorServer(null, 0, 1024));
+        assertEquals("Трансляция невозможна без поля!", exception.getMessage());
+    }
+
+    @Test
+    public void spectatorsFollowGame() throws Exception {
+        Field field = Field.rectangle(11, 11);
+        Cat cat = new Cat(field.cellAt(5, 5));
+        field.setCat(cat);
+        try (SpectatorServer server = new SpectatorServer(field, 0, 1 << 16);
+             Socket first = new Socket("localhost", server.getPort());
+             Socket second = new Socket("localhost", server.getPort())) {
+            waitForSpectators(server, 2);
+            ByteBuffer firstBuffer = ByteBuffer.allocate(4096), secondBuffer = ByteBuffer.allocate(4096);
+            BoardReplica firstReplica = new BoardReplica(), secondReplica = new BoardReplica();
+
+            server.publish();
+            follow(first.getInputStream(), firstBuffer, firstReplica, field);
+            for (int turn = 0; turn < 4; turn++) {
+                field.cellAt(turn, 0).block(true);
+                cat.move(Side.BOTTOM);
+                server.publish();
+                follow(first.getInputStream(), firstBuffer, firstReplica, field);
+            }
+            follow(second.getInputStream(), secondBuffer, secondReplica, field);
+        }
+    }
+
+    @Test
+    public void slowSpectatorGetsSnapshot() throws Exception {
+        Field field = Field.rectangle(64, 64);
+        try (SpectatorServer server = new SpectatorServer(field, 0, 4096);
+             Socket slow = new Socket("localhost", server.getPort())) {
+            slow.setReceiveBufferSize(1024);
+            waitForSpectators(server, 1);
+            for (int i = 0; i < 64 * 64; i++) {
+                field.cellAt(i % 64, i / 64).block(i % 3 == 0);
+                field.cellAt(i % 64, i / 64).block(i % 3 != 0);
+                server.publish();
+            }
+            server.publish();
+
+            Thread.sleep(50);
+            field.cellAt(0, 0).block(!field.cellAt(0, 0).isBlocked());
+            server.publish();
+            follow(slow.getInputStream(), ByteBuffer.allocate(1 << 16), new BoardReplica(), field);
+        }
+    }
+}